@@ -0,0 +1,181 @@
+import java.util.Arrays;
+
+/**
+* Keeps the k smallest distinct ints offered to it. A max-heap holds
+* the values so the largest kept value can be dropped in O(log k),
+* and a linear-probing hash set of the same values rejects
+* duplicates in expected constant time. To keep the k largest, offer
+* ~v for each v; ~ reverses the order of ints.
+*
+* @author   Ryan Litwin (rpl0010@auburn.edu)
+* @version  10/18/2026
+*
+*/
+final class BoundedDistinctHeap {
+   /** max-heap of the kept values in heap[0..size). */
+   private final int[] heap;
+   private int size;
+
+   /** linear-probing set of the kept values; 0 marks an empty slot. */
+   private final int[] set;
+   private final int mask;
+
+   /** true if 0 itself is kept, since it cannot be stored in set. */
+   private boolean hasZero;
+
+   /** largest set this heap builds; k must be less than this. */
+   static final int MAX_TABLE = 1 << 30;
+
+   /**
+    * Creates an empty heap that keeps at most k values. The set is the
+    * smallest power of two that is at least 2k, capped at MAX_TABLE.
+    * This method throws IllegalArgumentException if k is negative or
+    * not less than MAX_TABLE.
+    * @param k as an int
+    */
+   BoundedDistinctHeap(int k) {
+      if (k < 0 || k >= MAX_TABLE) {
+         throw new IllegalArgumentException();
+      }
+      heap = new int[k];
+      long length = Long.highestOneBit(Math.max(k, 1) * 2L - 1) << 1;
+      set = new int[(int) Math.min(length, MAX_TABLE)];
+      mask = set.length - 1;
+   }
+
+   /**
+    * Returns the number of values kept.
+    * @return the size
+    */
+   int size() {
+      return size;
+   }
+
+   /**
+    * Returns the largest value kept; the kth smallest once full.
+    * @return the largest kept value
+    */
+   int peek() {
+      return heap[0];
+   }
+
+   /**
+    * Keeps v if it is not already kept and is among the k smallest
+    * distinct values offered so far.
+    * @param v as an int
+    */
+   void offer(int v) {
+      if (size == heap.length && (size == 0 || v >= heap[0])) {
+         return;
+      }
+      if (contains(v)) {
+         return;
+      }
+      if (size == heap.length) {
+         remove(heap[0]);
+         heap[0] = v;
+         siftDown(0);
+      }
+      else {
+         heap[size] = v;
+         siftUp(size);
+         size++;
+      }
+      add(v);
+   }
+
+   /**
+    * Returns the kept values in ascending order.
+    * @return the sorted values
+    */
+   int[] toSortedArray() {
+      int[] sorted = Arrays.copyOf(heap, size);
+      Arrays.sort(sorted);
+      return sorted;
+   }
+
+   private void siftUp(int i) {
+      int v = heap[i];
+      while (i > 0 && heap[(i - 1) / 2] < v) {
+         heap[i] = heap[(i - 1) / 2];
+         i = (i - 1) / 2;
+      }
+      heap[i] = v;
+   }
+
+   private void siftDown(int i) {
+      int v = heap[i];
+      int half = size / 2;
+      while (i < half) {
+         int child = 2 * i + 1;
+         if (child + 1 < size && heap[child + 1] > heap[child]) {
+            child++;
+         }
+         if (heap[child] <= v) {
+            break;
+         }
+         heap[i] = heap[child];
+         i = child;
+      }
+      heap[i] = v;
+   }
+
+   private int home(int v) {
+      int h = v * 0x9E3779B9;
+      return (h ^ (h >>> 16)) & mask;
+   }
+
+   private boolean contains(int v) {
+      if (v == 0) {
+         return hasZero;
+      }
+      int i = home(v);
+      while (set[i] != 0) {
+         if (set[i] == v) {
+            return true;
+         }
+         i = (i + 1) & mask;
+      }
+      return false;
+   }
+
+   private void add(int v) {
+      if (v == 0) {
+         hasZero = true;
+         return;
+      }
+      int i = home(v);
+      while (set[i] != 0) {
+         i = (i + 1) & mask;
+      }
+      set[i] = v;
+   }
+
+   private void remove(int v) {
+      if (v == 0) {
+         hasZero = false;
+         return;
+      }
+      int i = home(v);
+      while (set[i] != v) {
+         i = (i + 1) & mask;
+      }
+      // shift later entries of the probe run back into the hole so
+      // that lookups never stop early at it
+      int j = i;
+      while (true) {
+         j = (j + 1) & mask;
+         if (set[j] == 0) {
+            break;
+         }
+         int h = home(set[j]);
+         boolean stays = (i <= j) ? (i < h && h <= j) : (i < h || h <= j);
+         if (!stays) {
+            set[i] = set[j];
+            i = j;
+         }
+      }
+      set[i] = 0;
+   }
+
+}
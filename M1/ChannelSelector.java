@@ -0,0 +1,258 @@
+import java.io.IOException;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+* Defines the Selector queries on a file of ints that is too large to
+* load into an array. The file is read as raw big-endian ints, the
+* format written by DataOutputStream.writeInt, and is memory-mapped a
+* chunk at a time, so every query makes a single pass and uses memory
+* that does not grow with the file. A trailing partial int is ignored.
+* The channel's position is not used or changed.
+*
+* @author   Ryan Litwin (rpl0010@auburn.edu)
+* @version  10/18/2026
+*
+*/
+public final class ChannelSelector {
+
+   /** Number of bytes mapped at a time; a multiple of Integer.BYTES. */
+   private static final long CHUNK_BYTES = 1L << 26;
+
+
+   /**
+    * Can't instantiate this class.
+    */
+   private ChannelSelector() { }
+
+
+   /**
+    * Selects the minimum value in the file. This method throws
+    * IllegalArgumentException if ch is null or holds no ints.
+    * @return the min
+    * @param ch as a readable FileChannel
+    * @throws IOException if the file cannot be read
+    */
+   public static int min(FileChannel ch) throws IOException {
+      long bytes = checkedBytes(ch);
+      int min = Integer.MAX_VALUE;
+      for (long pos = 0; pos < bytes; pos += CHUNK_BYTES) {
+         IntBuffer buf = map(ch, pos, bytes);
+         while (buf.hasRemaining()) {
+            min = Math.min(min, buf.get());
+         }
+      }
+      return min;
+   }
+
+
+   /**
+    * Selects the maximum value in the file. This method throws
+    * IllegalArgumentException if ch is null or holds no ints.
+    * @return the max
+    * @param ch as a readable FileChannel
+    * @throws IOException if the file cannot be read
+    */
+   public static int max(FileChannel ch) throws IOException {
+      long bytes = checkedBytes(ch);
+      int max = Integer.MIN_VALUE;
+      for (long pos = 0; pos < bytes; pos += CHUNK_BYTES) {
+         IntBuffer buf = map(ch, pos, bytes);
+         while (buf.hasRemaining()) {
+            max = Math.max(max, buf.get());
+         }
+      }
+      return max;
+   }
+
+
+   /**
+    * Returns the number of values in the file in the range
+    * [low..high], counting duplicates; this is the length of the array
+    * Selector.range would return. This method throws
+    * IllegalArgumentException if ch is null or holds no ints.
+    * @return the count of values in range
+    * @param ch as a readable FileChannel
+    * @param low as an int
+    * @param high as an int
+    * @throws IOException if the file cannot be read
+    */
+   public static long rangeCount(FileChannel ch, int low, int high)
+         throws IOException {
+      long bytes = checkedBytes(ch);
+      if (low > high) {
+         return 0;
+      }
+      int span = high - low;
+      long count = 0;
+      for (long pos = 0; pos < bytes; pos += CHUNK_BYTES) {
+         IntBuffer buf = map(ch, pos, bytes);
+         while (buf.hasRemaining()) {
+            if (Integer.compareUnsigned(buf.get() - low, span) <= 0) {
+               count++;
+            }
+         }
+      }
+      return count;
+   }
+
+
+   /**
+    * Returns the smallest value in the file that is greater than or
+    * equal to key. This method throws an IllegalArgumentException if ch
+    * is null, holds no ints, or if there is no qualifying value.
+    * @return ceiling
+    * @param ch as a readable FileChannel
+    * @param key as an int
+    * @throws IOException if the file cannot be read
+    */
+   public static int ceiling(FileChannel ch, int key) throws IOException {
+      long bytes = checkedBytes(ch);
+      boolean found = false;
+      int ceiling = 0;
+      for (long pos = 0; pos < bytes; pos += CHUNK_BYTES) {
+         IntBuffer buf = map(ch, pos, bytes);
+         while (buf.hasRemaining()) {
+            int i = buf.get();
+            if (i >= key && (!found || i < ceiling)) {
+               ceiling = i;
+               found = true;
+            }
+         }
+      }
+      if (!found) {
+         throw new IllegalArgumentException();
+      }
+      return ceiling;
+   }
+
+
+   /**
+    * Returns the largest value in the file that is less than or equal
+    * to key. This method throws an IllegalArgumentException if ch is
+    * null, holds no ints, or if there is no qualifying value.
+    * @return floor
+    * @param ch as a readable FileChannel
+    * @param key as an int
+    * @throws IOException if the file cannot be read
+    */
+   public static int floor(FileChannel ch, int key) throws IOException {
+      long bytes = checkedBytes(ch);
+      boolean found = false;
+      int floor = 0;
+      for (long pos = 0; pos < bytes; pos += CHUNK_BYTES) {
+         IntBuffer buf = map(ch, pos, bytes);
+         while (buf.hasRemaining()) {
+            int i = buf.get();
+            if (i <= key && (!found || i > floor)) {
+               floor = i;
+               found = true;
+            }
+         }
+      }
+      if (!found) {
+         throw new IllegalArgumentException();
+      }
+      return floor;
+   }
+
+
+   /**
+    * Selects the kth minimum distinct value in the file, as
+    * Selector.kmin does. The k smallest distinct values seen so far are
+    * kept in a bounded heap, so memory is proportional to k and not to
+    * the file. This method throws IllegalArgumentException if ch is
+    * null, holds no ints, if k < 1, or if k is larger than the number
+    * of distinct values in the file.
+    * @return the kmin
+    * @param ch as a readable FileChannel
+    * @param k as an int
+    * @throws IOException if the file cannot be read
+    */
+   public static int kmin(FileChannel ch, int k) throws IOException {
+      return smallest(ch, k, false);
+   }
+
+
+   /**
+    * Selects the kth maximum distinct value in the file, as
+    * Selector.kmax does, using memory proportional to k. This method
+    * throws IllegalArgumentException if ch is null, holds no ints, if
+    * k < 1, or if k is larger than the number of distinct values in
+    * the file.
+    * @return the kmax
+    * @param ch as a readable FileChannel
+    * @param k as an int
+    * @throws IOException if the file cannot be read
+    */
+   public static int kmax(FileChannel ch, int k) throws IOException {
+      return smallest(ch, k, true);
+   }
+
+
+   /**
+    * Returns the kth smallest distinct value in the file, or the kth
+    * largest if reverse is true. Reversal maps each value v to ~v,
+    * which turns the largest values into the smallest.
+    * @return the selected value
+    * @param ch as a readable FileChannel
+    * @param k as an int
+    * @param reverse as a boolean
+    * @throws IOException if the file cannot be read
+    */
+   private static int smallest(FileChannel ch, int k, boolean reverse)
+         throws IOException {
+      long bytes = checkedBytes(ch);
+      if (k < 1 || k > bytes / Integer.BYTES) {
+         throw new IllegalArgumentException();
+      }
+      BoundedDistinctHeap heap = new BoundedDistinctHeap(k);
+      for (long pos = 0; pos < bytes; pos += CHUNK_BYTES) {
+         IntBuffer buf = map(ch, pos, bytes);
+         while (buf.hasRemaining()) {
+            int i = buf.get();
+            heap.offer(reverse ? ~i : i);
+         }
+      }
+      if (heap.size() < k) {
+         throw new IllegalArgumentException();
+      }
+      return reverse ? ~heap.peek() : heap.peek();
+   }
+
+
+   /**
+    * Returns the number of whole-int bytes in ch, throwing
+    * IllegalArgumentException if ch is null or holds no ints.
+    * @return the byte count, a multiple of Integer.BYTES
+    * @param ch as a FileChannel
+    * @throws IOException if the size cannot be read
+    */
+   private static long checkedBytes(FileChannel ch) throws IOException {
+      if (ch == null) {
+         throw new IllegalArgumentException();
+      }
+      long bytes = ch.size() - ch.size() % Integer.BYTES;
+      if (bytes == 0) {
+         throw new IllegalArgumentException();
+      }
+      return bytes;
+   }
+
+
+   /**
+    * Maps the chunk of ch that starts at pos and returns it as ints.
+    * @return the ints in the chunk
+    * @param ch as a FileChannel
+    * @param pos as the starting byte
+    * @param bytes as the number of whole-int bytes in ch
+    * @throws IOException if the chunk cannot be mapped
+    */
+   private static IntBuffer map(FileChannel ch, long pos, long bytes)
+         throws IOException {
+      long length = Math.min(CHUNK_BYTES, bytes - pos);
+      return ch.map(FileChannel.MapMode.READ_ONLY, pos, length)
+         .asIntBuffer();
+   }
+
+}
@@ -0,0 +1,48 @@
+/**
+* The linear scans behind Selector min, max and range, split out so a
+* vectorized implementation can stand in for Selector's own loops. The
+* one in vector/VectorIntKernels.java needs the jdk.incubator.vector
+* module; Selector loads it by name and keeps its scalar loops when the
+* class or the module is missing.
+*
+* @author   Ryan Litwin (rpl0010@auburn.edu)
+* @version  10/18/2026
+*
+*/
+interface IntKernels {
+
+   /**
+    * Returns the smallest value in a, which is not empty.
+    * @return the min
+    * @param a as an array
+    */
+   int min(int[] a);
+
+   /**
+    * Returns the largest value in a, which is not empty.
+    * @return the max
+    * @param a as an array
+    */
+   int max(int[] a);
+
+   /**
+    * Returns the number of values v in a for which v - low, read as
+    * unsigned, is at most span; that is, the values in
+    * [low..low + span].
+    * @return the count
+    * @param a as an array
+    * @param low as the bottom of the range
+    * @param span as the width of the range, read as unsigned
+    */
+   int count(int[] a, int low, int span);
+
+   /**
+    * Copies the values counted by count(a, low, span) into out in the
+    * order they appear in a. The length of out is that count.
+    * @param a as an array
+    * @param low as the bottom of the range
+    * @param span as the width of the range, read as unsigned
+    * @param out as the array filled
+    */
+   void copy(int[] a, int low, int span, int[] out);
+}
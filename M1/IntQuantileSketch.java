@@ -0,0 +1,384 @@
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+* Defines a mergeable KLL quantile sketch of ints that answers
+* approximate Selector queries in memory that does not grow with the
+* number of values added.
+*
+* Values are kept in a stack of compactors. A value at level h stands
+* for 2^h of the values added. When a level fills up it is sorted and
+* every other value, starting at a random offset, is promoted to the
+* next level. About 3k values are retained in total, and the estimated
+* rank of any value is within about 3.3 / k of its true rank, as a
+* fraction of size(), with high probability.
+*
+* Unlike Selector, ranks here count duplicate values, so kmin(k)
+* approximates the kth value of the sorted array rather than the kth
+* distinct value. Sketches built on different shards can be combined
+* with merge.
+*
+* @author   Ryan Litwin (rpl0010@auburn.edu)
+* @version  10/18/2026
+*
+*/
+public final class IntQuantileSketch {
+
+   /** default accuracy parameter. */
+   public static final int DEFAULT_K = 200;
+
+   /** ratio between the capacities of adjacent levels. */
+   private static final double SHRINK = 2.0 / 3.0;
+
+   /** the accuracy parameter k: the capacity of the top level. */
+   private final int top;
+
+   /** levels[h][0..sizes[h]) holds values of weight 2^h. */
+   private int[][] levels = new int[0][];
+
+   /** number of values held at each level. */
+   private int[] sizes = new int[0];
+
+   /** the source of the compaction offsets. */
+   private final Random random = new Random();
+
+   /** number of values added, counting merged sketches. */
+   private long n;
+
+   /** number of values currently held across all levels. */
+   private int retained;
+
+   /** sum of the level capacities; retained is kept below this. */
+   private int maxRetained;
+
+   /** retained values in ascending order, or null if out of date. */
+   private int[] sorted;
+
+   /** cumulative[i] is the total weight of sorted[0..i]. */
+   private long[] cumulative;
+
+
+   /**
+    * Creates an empty sketch with the default accuracy.
+    */
+   public IntQuantileSketch() {
+      this(DEFAULT_K);
+   }
+
+
+   /**
+    * Creates an empty sketch that retains about 3k values. This
+    * constructor throws IllegalArgumentException if k < 8.
+    * @param k as the accuracy parameter
+    */
+   public IntQuantileSketch(int k) {
+      if (k < 8) {
+         throw new IllegalArgumentException();
+      }
+      top = k;
+      grow();
+   }
+
+
+   /**
+    * Adds value to this sketch.
+    * @param value as an int
+    */
+   public void add(int value) {
+      append(0, value);
+      n++;
+      retained++;
+      sorted = null;
+      while (retained >= maxRetained) {
+         compress();
+      }
+   }
+
+
+   /**
+    * Adds every value in a to this sketch. This method throws
+    * IllegalArgumentException if a is null.
+    * @param a as an array
+    */
+   public void addAll(int[] a) {
+      if (a == null) {
+         throw new IllegalArgumentException();
+      }
+      for (int i : a) {
+         add(i);
+      }
+   }
+
+
+   /**
+    * Folds the values summarized by that sketch into this one, as if
+    * they had been added here. That sketch is not changed. This method
+    * throws IllegalArgumentException if that is null.
+    * @param that as a sketch
+    */
+   public void merge(IntQuantileSketch that) {
+      if (that == null) {
+         throw new IllegalArgumentException();
+      }
+      int[][] other = new int[that.levels.length][];
+      for (int h = 0; h < other.length; h++) {
+         other[h] = Arrays.copyOf(that.levels[h], that.sizes[h]);
+      }
+      while (levels.length < other.length) {
+         grow();
+      }
+      for (int h = 0; h < other.length; h++) {
+         for (int v : other[h]) {
+            append(h, v);
+         }
+         retained += other[h].length;
+      }
+      n += that.n;
+      sorted = null;
+      while (retained >= maxRetained) {
+         compress();
+      }
+   }
+
+
+   /**
+    * Returns the number of values summarized by this sketch.
+    * @return the size
+    */
+   public long size() {
+      return n;
+   }
+
+
+   /**
+    * Returns the expected bound on the rank error of this sketch as a
+    * fraction of size().
+    * @return the normalized rank error
+    */
+   public double normalizedRankError() {
+      return 3.3 / top;
+   }
+
+
+   /**
+    * Returns the estimated number of added values that are less than or
+    * equal to key.
+    * @return the estimated rank
+    * @param key as an int
+    */
+   public long rank(int key) {
+      prepare();
+      int i = upperBound(key);
+      return (i == 0) ? 0 : cumulative[i - 1];
+   }
+
+
+   /**
+    * Returns an approximate kth minimum: a retained value whose
+    * estimated rank is the first to reach k. Duplicates are counted.
+    * This method throws IllegalArgumentException if this sketch is
+    * empty or k is not in [1..size()].
+    * @return the approximate kmin
+    * @param k as a rank
+    */
+   public int kmin(long k) {
+      if (n == 0 || k < 1 || k > n) {
+         throw new IllegalArgumentException();
+      }
+      prepare();
+      int lo = 0;
+      int hi = cumulative.length - 1;
+      while (lo < hi) {
+         int mid = (lo + hi) >>> 1;
+         if (cumulative[mid] < k) {
+            lo = mid + 1;
+         }
+         else {
+            hi = mid;
+         }
+      }
+      return sorted[lo];
+   }
+
+
+   /**
+    * Returns an approximate kth maximum, that is, kmin(size() - k + 1).
+    * This method throws IllegalArgumentException if this sketch is
+    * empty or k is not in [1..size()].
+    * @return the approximate kmax
+    * @param k as a rank
+    */
+   public int kmax(long k) {
+      if (n == 0 || k < 1 || k > n) {
+         throw new IllegalArgumentException();
+      }
+      return kmin(n - k + 1);
+   }
+
+
+   /**
+    * Returns the smallest retained value that is greater than or equal
+    * to key. Its rank is within the rank error of the rank of the exact
+    * ceiling. This method throws IllegalArgumentException if no
+    * retained value qualifies.
+    * @return the approximate ceiling
+    * @param key as an int
+    */
+   public int ceiling(int key) {
+      prepare();
+      int lo = 0;
+      int hi = sorted.length;
+      while (lo < hi) {
+         int mid = (lo + hi) >>> 1;
+         if (sorted[mid] < key) {
+            lo = mid + 1;
+         }
+         else {
+            hi = mid;
+         }
+      }
+      if (lo == sorted.length) {
+         throw new IllegalArgumentException();
+      }
+      return sorted[lo];
+   }
+
+
+   /**
+    * Returns the largest retained value that is less than or equal to
+    * key. Its rank is within the rank error of the rank of the exact
+    * floor. This method throws IllegalArgumentException if no retained
+    * value qualifies.
+    * @return the approximate floor
+    * @param key as an int
+    */
+   public int floor(int key) {
+      prepare();
+      int i = upperBound(key);
+      if (i == 0) {
+         throw new IllegalArgumentException();
+      }
+      return sorted[i - 1];
+   }
+
+
+   /**
+    * Returns the number of sorted values less than or equal to key.
+    * @return the upper bound
+    * @param key as an int
+    */
+   private int upperBound(int key) {
+      int lo = 0;
+      int hi = sorted.length;
+      while (lo < hi) {
+         int mid = (lo + hi) >>> 1;
+         if (sorted[mid] <= key) {
+            lo = mid + 1;
+         }
+         else {
+            hi = mid;
+         }
+      }
+      return lo;
+   }
+
+
+   /**
+    * Rebuilds the sorted view of the retained values and their
+    * cumulative weights if anything has changed since the last query.
+    * Each value is packed with its level so one primitive sort orders
+    * both.
+    */
+   private void prepare() {
+      if (sorted != null) {
+         return;
+      }
+      long[] packed = new long[retained];
+      int id = 0;
+      for (int h = 0; h < levels.length; h++) {
+         for (int i = 0; i < sizes[h]; i++) {
+            packed[id] = ((long) levels[h][i] << 32) | h;
+            id++;
+         }
+      }
+      Arrays.sort(packed);
+      sorted = new int[retained];
+      cumulative = new long[retained];
+      long total = 0;
+      for (int i = 0; i < packed.length; i++) {
+         sorted[i] = (int) (packed[i] >> 32);
+         total += 1L << (int) packed[i];
+         cumulative[i] = total;
+      }
+   }
+
+
+   /**
+    * Returns the capacity of level h: top at the top level, shrinking by
+    * SHRINK per level below it, plus one so it is never less than 2.
+    * @return the capacity
+    * @param h as a level
+    */
+   private int capacity(int h) {
+      int depth = levels.length - h - 1;
+      return (int) Math.ceil(top * Math.pow(SHRINK, depth)) + 1;
+   }
+
+
+   /**
+    * Adds an empty top level and recomputes maxRetained.
+    */
+   private void grow() {
+      levels = Arrays.copyOf(levels, levels.length + 1);
+      sizes = Arrays.copyOf(sizes, sizes.length + 1);
+      levels[levels.length - 1] = new int[8];
+      maxRetained = 0;
+      for (int h = 0; h < levels.length; h++) {
+         maxRetained += capacity(h);
+      }
+   }
+
+
+   /**
+    * Appends v to level h, growing its array as needed.
+    * @param h as a level
+    * @param v as an int
+    */
+   private void append(int h, int v) {
+      if (sizes[h] == levels[h].length) {
+         levels[h] = Arrays.copyOf(levels[h], levels[h].length * 2);
+      }
+      levels[h][sizes[h]] = v;
+      sizes[h]++;
+   }
+
+
+   /**
+    * Compacts the lowest level that has reached its capacity.
+    */
+   private void compress() {
+      for (int h = 0; h < levels.length; h++) {
+         if (sizes[h] >= capacity(h)) {
+            if (h + 1 == levels.length) {
+               grow();
+            }
+            int[] level = levels[h];
+            int size = sizes[h];
+            Arrays.sort(level, 0, size);
+            int pairs = size / 2;
+            int offset = random.nextBoolean() ? 1 : 0;
+            for (int i = 0; i < pairs; i++) {
+               append(h + 1, level[2 * i + offset]);
+            }
+            sizes[h] = 0;
+            if (size % 2 == 1) {
+               level[0] = level[size - 1];
+               sizes[h] = 1;
+            }
+            retained -= pairs;
+            return;
+         }
+      }
+   }
+
+}
@@ -0,0 +1,284 @@
+import java.util.Arrays;
+
+/**
+* Holds several order statistics of one array of ints, all computed in
+* a single pass by Selector.summarize. The statistics to compute are
+* named by a Spec; min and max are always computed.
+*
+* @author   Ryan Litwin (rpl0010@auburn.edu)
+* @version  10/18/2026
+*
+*/
+public final class IntSummary {
+
+   /** the minimum and maximum values. */
+   private final int min;
+   private final int max;
+
+   /** the smallest distinct values, ascending. */
+   private final int[] smallest;
+
+   /** the largest distinct values, descending. */
+   private final int[] largest;
+
+   /** rangeCounts[i] is the number of values in the ith range. */
+   private final int[] rangeCounts;
+
+   /** floors[i] is the floor of the ith floor key, if hasFloor[i]. */
+   private final int[] floors;
+   private final boolean[] hasFloor;
+
+   /** ceilings[i] is the ceiling of the ith ceiling key, if hasCeiling[i]. */
+   private final int[] ceilings;
+   private final boolean[] hasCeiling;
+
+
+   /**
+    * Computes the statistics named by spec over a in one pass. Only
+    * Selector.summarize calls this, after checking its arguments.
+    * @param a as a non-empty array
+    * @param spec as the statistics to compute
+    */
+   IntSummary(int[] a, Spec spec) {
+      int ranges = spec.ranges;
+      int floorKeys = spec.floorCount;
+      int ceilingKeys = spec.ceilingCount;
+      BoundedDistinctHeap low =
+         new BoundedDistinctHeap(Math.min(spec.smallest, a.length));
+      BoundedDistinctHeap high =
+         new BoundedDistinctHeap(Math.min(spec.largest, a.length));
+      rangeCounts = new int[ranges];
+      floors = new int[floorKeys];
+      hasFloor = new boolean[floorKeys];
+      ceilings = new int[ceilingKeys];
+      hasCeiling = new boolean[ceilingKeys];
+
+      int lo = a[0];
+      int hi = a[0];
+      for (int v : a) {
+         lo = Math.min(lo, v);
+         hi = Math.max(hi, v);
+         low.offer(v);
+         high.offer(~v);
+         for (int i = 0; i < ranges; i++) {
+            if (v >= spec.lows[i] && v <= spec.highs[i]) {
+               rangeCounts[i]++;
+            }
+         }
+         for (int i = 0; i < floorKeys; i++) {
+            if (v <= spec.floorKeys[i] && (!hasFloor[i] || v > floors[i])) {
+               floors[i] = v;
+               hasFloor[i] = true;
+            }
+         }
+         for (int i = 0; i < ceilingKeys; i++) {
+            if (v >= spec.ceilingKeys[i]
+               && (!hasCeiling[i] || v < ceilings[i])) {
+               ceilings[i] = v;
+               hasCeiling[i] = true;
+            }
+         }
+      }
+      min = lo;
+      max = hi;
+      smallest = low.toSortedArray();
+      largest = high.toSortedArray();
+      for (int i = 0; i < largest.length; i++) {
+         largest[i] = ~largest[i];
+      }
+   }
+
+
+   /**
+    * Returns the minimum value, as Selector.min would.
+    * @return the min
+    */
+   public int min() {
+      return min;
+   }
+
+
+   /**
+    * Returns the maximum value, as Selector.max would.
+    * @return the max
+    */
+   public int max() {
+      return max;
+   }
+
+
+   /**
+    * Returns the kth minimum value, as Selector.kmin would. This method
+    * throws IllegalArgumentException if k is not in [1..spec.kmin] or
+    * there is no kth minimum value.
+    * @return the kmin
+    * @param k as an int
+    */
+   public int kmin(int k) {
+      if (k < 1 || k > smallest.length) {
+         throw new IllegalArgumentException();
+      }
+      return smallest[k - 1];
+   }
+
+
+   /**
+    * Returns the kth maximum value, as Selector.kmax would. This method
+    * throws IllegalArgumentException if k is not in [1..spec.kmax] or
+    * there is no kth maximum value.
+    * @return the kmax
+    * @param k as an int
+    */
+   public int kmax(int k) {
+      if (k < 1 || k > largest.length) {
+         throw new IllegalArgumentException();
+      }
+      return largest[k - 1];
+   }
+
+
+   /**
+    * Returns the number of values in the ith range added to the spec,
+    * counting duplicates; this is the length of the array Selector.range
+    * would return.
+    * @return the count of values in range
+    * @param i as the index of the range, in the order it was added
+    */
+   public int rangeCount(int i) {
+      return rangeCounts[i];
+   }
+
+
+   /**
+    * Returns the floor of the ith floor key added to the spec, as
+    * Selector.floor would. This method throws IllegalArgumentException
+    * if there is no qualifying value.
+    * @return floor
+    * @param i as the index of the key, in the order it was added
+    */
+   public int floor(int i) {
+      if (!hasFloor[i]) {
+         throw new IllegalArgumentException();
+      }
+      return floors[i];
+   }
+
+
+   /**
+    * Returns the ceiling of the ith ceiling key added to the spec, as
+    * Selector.ceiling would. This method throws IllegalArgumentException
+    * if there is no qualifying value.
+    * @return ceiling
+    * @param i as the index of the key, in the order it was added
+    */
+   public int ceiling(int i) {
+      if (!hasCeiling[i]) {
+         throw new IllegalArgumentException();
+      }
+      return ceilings[i];
+   }
+
+
+   /**
+    * Names the statistics an IntSummary should compute. Each method
+    * returns this Spec so calls can be chained; ranges and keys are
+    * numbered in the order they are added.
+    */
+   public static final class Spec {
+      private int smallest;
+      private int largest;
+      // each array holds its requests in [0..count) and doubles when full,
+      // so adding m requests copies O(m) ints in all
+      private int ranges;
+      private int[] lows = new int[0];
+      private int[] highs = new int[0];
+      private int floorCount;
+      private int[] floorKeys = new int[0];
+      private int ceilingCount;
+      private int[] ceilingKeys = new int[0];
+
+      /**
+       * Requests the k smallest distinct values, so that kmin(1..k) can
+       * be answered. This method throws IllegalArgumentException if
+       * k < 0.
+       * @return this Spec
+       * @param k as an int
+       */
+      public Spec kmin(int k) {
+         if (k < 0) {
+            throw new IllegalArgumentException();
+         }
+         smallest = k;
+         return this;
+      }
+
+      /**
+       * Requests the k largest distinct values, so that kmax(1..k) can
+       * be answered. This method throws IllegalArgumentException if
+       * k < 0.
+       * @return this Spec
+       * @param k as an int
+       */
+      public Spec kmax(int k) {
+         if (k < 0) {
+            throw new IllegalArgumentException();
+         }
+         largest = k;
+         return this;
+      }
+
+      /**
+       * Requests the count of values in [low..high].
+       * @return this Spec
+       * @param low as an int
+       * @param high as an int
+       */
+      public Spec range(int low, int high) {
+         lows = grow(lows, ranges);
+         highs = grow(highs, ranges);
+         lows[ranges] = low;
+         highs[ranges] = high;
+         ranges++;
+         return this;
+      }
+
+      /**
+       * Requests the floor of key.
+       * @return this Spec
+       * @param key as an int
+       */
+      public Spec floor(int key) {
+         floorKeys = grow(floorKeys, floorCount);
+         floorKeys[floorCount] = key;
+         floorCount++;
+         return this;
+      }
+
+      /**
+       * Requests the ceiling of key.
+       * @return this Spec
+       * @param key as an int
+       */
+      public Spec ceiling(int key) {
+         ceilingKeys = grow(ceilingKeys, ceilingCount);
+         ceilingKeys[ceilingCount] = key;
+         ceilingCount++;
+         return this;
+      }
+
+      /**
+       * Returns a, or a copy of it twice as long if all of its count
+       * slots are in use.
+       * @return an array with room past count
+       * @param a as an array
+       * @param count as the number of slots of a in use
+       */
+      private static int[] grow(int[] a, int count) {
+         if (count < a.length) {
+            return a;
+         }
+         return Arrays.copyOf(a, Math.max(4, 2 * a.length));
+      }
+   }
+
+}
@@ -1,4 +1,8 @@
 import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
 
 /**
 * Defines a library of selection methods
@@ -20,6 +24,14 @@ public final class Selector {
    private Selector() { }
 
 
+   /**
+    * Vectorized scans for min, max and range, or null if the
+    * VectorIntKernels class or the jdk.incubator.vector module it needs
+    * is not present, in which case the scalar loops below are used.
+    */
+   private static final IntKernels KERNELS = loadKernels();
+
+
    /**
     * Selects the minimum value from the array a. This method
     * throws IllegalArgumentException if a is null or has zero
@@ -31,12 +43,13 @@ public final class Selector {
       if (a == null || a.length == 0) {
          throw new IllegalArgumentException();
       }
+      else if (KERNELS != null) {
+         return KERNELS.min(a);
+      }
       else {
          int min = a[0];
          for (int i = 1; i < a.length; i++) {
-            if (min > a[i]) {
-               min = a[i];
-            }
+            min = Math.min(min, a[i]);
          }
          return min;
       }
@@ -54,13 +67,14 @@ public final class Selector {
       if (a == null || a.length == 0) {
          throw new IllegalArgumentException();
       }
+      else if (KERNELS != null) {
+         return KERNELS.max(a);
+      }
       else {
          int max = a[0];
          for (int i = 1; i < a.length; i++) {
-            if (max < a[i]) {
-               max = a[i];
-            }
-         } 
+            max = Math.max(max, a[i]);
+         }
          return max;
       }
    }
@@ -82,24 +96,12 @@ public final class Selector {
          throw new IllegalArgumentException();
       }
       else {
-         k--;
-         int[] b = Arrays.copyOf(a, a.length);
-         Arrays.sort(b);
-         
-         int count = 0;
-         for (int i = 1; i <= k; i++) {
-            if (k >= b.length) {
-               throw new IllegalArgumentException();
-            }
-            if (b[count] == b[i]) {
-               k++;
-            }
-            count++;
-         }
-         if (k >= b.length) {
+         int[] b = new int[tableSize(a.length)];
+         int distinct = distinct(a, b);
+         if (k > distinct) {
             throw new IllegalArgumentException();
          }
-         return b[k];
+         return b[select(b, 0, distinct - 1, k - 1)];
       }
    }
 
@@ -120,34 +122,12 @@ public final class Selector {
          throw new IllegalArgumentException();
       }
       else {
-         int[] b = Arrays.copyOf(a, a.length);
-         Arrays.sort(b);
-         k--;
-         
-         int[] d = new int[b.length];
-         int ii = d.length - 1;
-         for (int i:b) {
-            if (ii >= 0) {
-               d[ii] = i;
-               ii--;
-            }
-         }
-         
-         int count = 0;
-         for (int i = 1; i <= k; i++) {
-            if (k >= b.length) {
-               throw new IllegalArgumentException();
-            }
-            if (d[count] == d[i]) {
-               k++;
-            }
-            count++;
-         }
-         
-         if (k >= b.length) {
+         int[] b = new int[tableSize(a.length)];
+         int distinct = distinct(a, b);
+         if (k > distinct) {
             throw new IllegalArgumentException();
          }
-         return d[k];
+         return b[select(b, 0, distinct - 1, distinct - k)];
       }
    }
 
@@ -173,19 +153,26 @@ public final class Selector {
          throw new IllegalArgumentException();
       }
       else {
+         if (low > high) {
+            return new int[0];
+         }
+         // i is in [low..high] exactly when i - low, read as unsigned,
+         // is at most high - low; one compare keeps the loop branch-free
+         int span = high - low;
+         if (KERNELS != null) {
+            int[] ab = new int[KERNELS.count(a, low, span)];
+            KERNELS.copy(a, low, span, ab);
+            return ab;
+         }
          int count = 0;
-         for (int i:a) {
-            if (i >= low && i <= high) {
-               count++;
-            }
+         for (int i : a) {
+            count += (Integer.compareUnsigned(i - low, span) <= 0) ? 1 : 0;
          }
          int[] ab = new int[count];
          int id = 0;
-         for (int i:a) {
-            if (i >= low && i <= high) {
-               ab[id] = i;
-               id++;
-            }
+         for (int j = 0; id < count; j++) {
+            ab[id] = a[j];
+            id += (Integer.compareUnsigned(a[j] - low, span) <= 0) ? 1 : 0;
          }
          return ab;
       }
@@ -203,37 +190,22 @@ public final class Selector {
     * @param key as an int
     */
    public static int ceiling(int[] a, int key) {
-      if (a == null || a.length == 0 || key > max(a)) {
+      if (a == null || a.length == 0) {
          throw new IllegalArgumentException();
       }
       else {
-         int[] ab = new int[a.length];
-         int count = 0;
-         int count2 = 0;
-         for (int i:a) {
-            ab[count] = key - i;
-            count++;
-         }
-         for (int i:ab) {
-            if (i <= 0) {
-               count2++;
+         boolean found = false;
+         int ceiling = 0;
+         for (int i : a) {
+            if (i >= key && (!found || i < ceiling)) {
+               ceiling = i;
+               found = true;
             }
          }
-         int[] c = new int[count2];
-         int id = 0;
-         for (int i:ab) {
-            if (i <= 0) {
-               c[id] = i;
-               id++;
-            }
+         if (!found) {
+            throw new IllegalArgumentException();
          }
-         int maxSize = c[0];
-         for (int i:c) {
-            if (i > maxSize) {
-               maxSize = i;
-            }
-         }         
-         return key - maxSize;
+         return ceiling;
       }
    }
 
@@ -249,37 +221,1480 @@ public final class Selector {
     * @param key as an int
     */
    public static int floor(int[] a, int key) {
-      if (a == null || a.length == 0 || key < min(a)) {
+      if (a == null || a.length == 0) {
          throw new IllegalArgumentException();
       }
       else {
-         int[] b = new int[a.length];
-         int count = 0;
-         int count2 = 0;
-         for (int i:a) {
-            b[count] = key - i;
-            count++;
+         boolean found = false;
+         int floor = 0;
+         for (int i : a) {
+            if (i <= key && (!found || i > floor)) {
+               floor = i;
+               found = true;
+            }
+         }
+         if (!found) {
+            throw new IllegalArgumentException();
+         }
+         return floor;
+      }
+   }
+
+
+   /**
+    * Returns an array whose ith element is the ceiling in a of keys[i],
+    * as defined by ceiling(int[], int). The keys are sorted once and a
+    * is scanned once, so answering m keys costs O((n + m) log m) rather
+    * than the O(nm) of m separate calls. This method throws an
+    * IllegalArgumentException if a is null or has zero length, if keys
+    * is null, or if any key has no qualifying value. Neither a nor keys
+    * is changed by this method.
+    * @return the ceilings
+    * @param a as an array
+    * @param keys as an array
+    */
+   public static int[] ceiling(int[] a, int[] keys) {
+      if (a == null || a.length == 0 || keys == null) {
+         throw new IllegalArgumentException();
+      }
+      else {
+         long[] order = keyOrder(keys);
+         long[] best = new long[order.length];
+         Arrays.fill(best, Long.MAX_VALUE);
+         for (int i : a) {
+            int pos = rank(order, i, true) - 1;
+            if (pos >= 0 && i < best[pos]) {
+               best[pos] = i;
+            }
+         }
+         int[] ceilings = new int[keys.length];
+         long ceiling = Long.MAX_VALUE;
+         for (int j = order.length - 1; j >= 0; j--) {
+            ceiling = Math.min(ceiling, best[j]);
+            if (ceiling == Long.MAX_VALUE) {
+               throw new IllegalArgumentException();
+            }
+            ceilings[(int) order[j]] = (int) ceiling;
+         }
+         return ceilings;
+      }
+   }
+
+
+   /**
+    * Returns an array whose ith element is the floor in a of keys[i],
+    * as defined by floor(int[], int). The keys are sorted once and a
+    * is scanned once, so answering m keys costs O((n + m) log m) rather
+    * than the O(nm) of m separate calls. This method throws an
+    * IllegalArgumentException if a is null or has zero length, if keys
+    * is null, or if any key has no qualifying value. Neither a nor keys
+    * is changed by this method.
+    * @return the floors
+    * @param a as an array
+    * @param keys as an array
+    */
+   public static int[] floor(int[] a, int[] keys) {
+      if (a == null || a.length == 0 || keys == null) {
+         throw new IllegalArgumentException();
+      }
+      else {
+         long[] order = keyOrder(keys);
+         long[] best = new long[order.length];
+         Arrays.fill(best, Long.MIN_VALUE);
+         for (int i : a) {
+            int pos = rank(order, i, false);
+            if (pos < order.length && i > best[pos]) {
+               best[pos] = i;
+            }
+         }
+         int[] floors = new int[keys.length];
+         long floor = Long.MIN_VALUE;
+         for (int j = 0; j < order.length; j++) {
+            floor = Math.max(floor, best[j]);
+            if (floor == Long.MIN_VALUE) {
+               throw new IllegalArgumentException();
+            }
+            floors[(int) order[j]] = (int) floor;
+         }
+         return floors;
+      }
+   }
+
+
+   /**
+    * Computes every statistic named by spec over the array a in a single
+    * pass. The returned IntSummary always holds the min and max, plus
+    * the requested smallest and largest distinct values, range counts,
+    * floors, and ceilings, each with the same meaning as the matching
+    * method here. This method throws IllegalArgumentException if a is
+    * null or has zero length, or if spec is null. The array a is not
+    * changed by this method.
+    * @return the requested statistics of a
+    * @param a as an array
+    * @param spec as the statistics to compute
+    */
+   public static IntSummary summarize(int[] a, IntSummary.Spec spec) {
+      if (a == null || a.length == 0 || spec == null) {
+         throw new IllegalArgumentException();
+      }
+      else {
+         return new IntSummary(a, spec);
+      }
+   }
+
+
+   /**
+    * Selects the minimum value from the array a, as min does, splitting
+    * arrays longer than PARALLEL_THRESHOLD across the common
+    * ForkJoinPool. This method throws IllegalArgumentException if a is
+    * null or has zero length. The array a is not changed by this method.
+    * @return the min
+    * @param a as an array
+    */
+   public static int parallelMin(int[] a) {
+      if (a == null || a.length == 0) {
+         throw new IllegalArgumentException();
+      }
+      else if (a.length <= PARALLEL_THRESHOLD) {
+         return min(a);
+      }
+      else {
+         return ForkJoinPool.commonPool().invoke(
+            new ExtremeTask(a, 0, a.length, false));
+      }
+   }
+
+
+   /**
+    * Selects the maximum value from the array a, as max does, splitting
+    * arrays longer than PARALLEL_THRESHOLD across the common
+    * ForkJoinPool. This method throws IllegalArgumentException if a is
+    * null or has zero length. The array a is not changed by this method.
+    * @return the max
+    * @param a as an array
+    */
+   public static int parallelMax(int[] a) {
+      if (a == null || a.length == 0) {
+         throw new IllegalArgumentException();
+      }
+      else if (a.length <= PARALLEL_THRESHOLD) {
+         return max(a);
+      }
+      else {
+         return ForkJoinPool.commonPool().invoke(
+            new ExtremeTask(a, 0, a.length, true));
+      }
+   }
+
+
+   /**
+    * Returns the same array as range(a, low, high), splitting arrays
+    * longer than PARALLEL_THRESHOLD across the common ForkJoinPool.
+    * Each chunk counts its qualifying values in parallel, a prefix sum
+    * over the chunk counts gives every chunk its offset in the result,
+    * and the chunks then copy in parallel, so the values keep the order
+    * they have in a. This method throws an IllegalArgumentException if
+    * a is null or has zero length. The array a is not changed by this
+    * method.
+    * @return the values in range
+    * @param a as an array
+    * @param low as an int
+    * @param high as an int
+    */
+   public static int[] parallelRange(int[] a, int low, int high) {
+      if (a == null || a.length == 0) {
+         throw new IllegalArgumentException();
+      }
+      else if (a.length <= PARALLEL_THRESHOLD || low > high) {
+         return range(a, low, high);
+      }
+      else {
+         int chunks = (a.length - 1) / PARALLEL_THRESHOLD + 1;
+         int[] offsets = new int[chunks + 1];
+         ForkJoinPool.commonPool().invoke(
+            new RangeTask(a, low, high, offsets, null, 0, chunks));
+         for (int c = 0; c < chunks; c++) {
+            offsets[c + 1] += offsets[c];
+         }
+         int[] ab = new int[offsets[chunks]];
+         ForkJoinPool.commonPool().invoke(
+            new RangeTask(a, low, high, offsets, ab, 0, chunks));
+         return ab;
+      }
+   }
+
+
+   /**
+    * Selects the kth minimum value from the array a, as kmin does, for
+    * arrays longer than PARALLEL_THRESHOLD. A strided sample of a gives
+    * a cutoff value that is likely to be above the kth minimum; the
+    * values at or below the cutoff are gathered with parallelRange and
+    * the kth minimum is selected from them. If they hold fewer than k
+    * distinct values, the cutoff is raised and the step repeated, up
+    * to a selection over all of a. This method throws
+    * IllegalArgumentException in the same cases as kmin. The array a
+    * is not changed by this method.
+    * @return the kmin
+    * @param a as an array
+    * @param k as an int
+    */
+   public static int parallelKmin(int[] a, int k) {
+      if (a == null || a.length == 0 || k < 1 || k > a.length) {
+         throw new IllegalArgumentException();
+      }
+      else if (a.length <= PARALLEL_THRESHOLD) {
+         return kmin(a, k);
+      }
+      else {
+         int[] sample = new int[SAMPLE_SIZE];
+         for (int i = 0; i < SAMPLE_SIZE; i++) {
+            sample[i] = a[(int) ((long) i * a.length / SAMPLE_SIZE)];
          }
-         for (int i:b) {
-            if (i >= 0) {
-               count2++;
+         Arrays.sort(sample);
+         long cut = 2L * k * SAMPLE_SIZE / a.length + SAMPLE_SIZE / 256;
+         while (cut < SAMPLE_SIZE - 1) {
+            int[] b = parallelRange(a, Integer.MIN_VALUE, sample[(int) cut]);
+            int[] table = new int[tableSize(b.length)];
+            int distinct = distinct(b, table);
+            if (k <= distinct) {
+               return table[select(table, 0, distinct - 1, k - 1)];
             }
+            cut *= 2;
+         }
+         return kmin(a, k);
+      }
+   }
+
+
+   /**
+    * Selects the minimum value from the array a. This method
+    * throws IllegalArgumentException if a is null or has zero
+    * length. The array a is not changed by this method.
+    * @return the min
+    * @param a as an array
+    */
+   public static long min(long[] a) {
+      if (a == null || a.length == 0) {
+         throw new IllegalArgumentException();
+      }
+      else {
+         long min = a[0];
+         for (int i = 1; i < a.length; i++) {
+            min = Math.min(min, a[i]);
+         }
+         return min;
+      }
+   }
+
+
+   /**
+    * Selects the maximum value from the array a. This method
+    * throws IllegalArgumentException if a is null or has zero
+    * length. The array a is not changed by this method.
+    * @return the max
+    * @param a as an array
+    */
+   public static long max(long[] a) {
+      if (a == null || a.length == 0) {
+         throw new IllegalArgumentException();
+      }
+      else {
+         long max = a[0];
+         for (int i = 1; i < a.length; i++) {
+            max = Math.max(max, a[i]);
+         }
+         return max;
+      }
+   }
+
+
+   /**
+    * Selects the kth minimum value from the array a, as kmin(int[], int)
+    * does. This method throws IllegalArgumentException if a is null,
+    * has zero length, or if there is no kth minimum value. The array a
+    * is not changed by this method.
+    * @return the kmin
+    * @param a as an array
+    * @param k as an int
+    */
+   public static long kmin(long[] a, int k) {
+      if (a == null || a.length == 0 || k < 1 || k > a.length) {
+         throw new IllegalArgumentException();
+      }
+      else {
+         return kth(a, k, false);
+      }
+   }
+
+
+   /**
+    * Selects the kth maximum value from the array a, as kmax(int[], int)
+    * does. This method throws IllegalArgumentException if a is null,
+    * has zero length, or if there is no kth maximum value. The array a
+    * is not changed by this method.
+    * @return the kmax
+    * @param a as an array
+    * @param k as an int
+    */
+   public static long kmax(long[] a, int k) {
+      if (a == null || a.length == 0 || k < 1 || k > a.length) {
+         throw new IllegalArgumentException();
+      }
+      else {
+         return kth(a, k, true);
+      }
+   }
+
+
+   /**
+    * Returns an array containing all the values in a in the range
+    * [low..high], including duplicates, in the order they appear in a.
+    * If there are no qualifying values, this method returns a
+    * zero-length array. This method throws an IllegalArgumentException
+    * if a is null or has zero length. The array a is not changed by
+    * this method.
+    * @return the values in range
+    * @param a as an array
+    * @param low as a long
+    * @param high as a long
+    */
+   public static long[] range(long[] a, long low, long high) {
+      if (a == null || a.length == 0) {
+         throw new IllegalArgumentException();
+      }
+      else {
+         if (low > high) {
+            return new long[0];
+         }
+         long span = high - low;
+         int count = 0;
+         for (long i : a) {
+            count += (Long.compareUnsigned(i - low, span) <= 0) ? 1 : 0;
          }
-         int[] c = new int[count2];
+         long[] ab = new long[count];
          int id = 0;
-         for (int i:b) {
-            if (i >= 0) {
-               c[id] = i;
-               id++;
+         for (int j = 0; id < count; j++) {
+            ab[id] = a[j];
+            id += (Long.compareUnsigned(a[j] - low, span) <= 0) ? 1 : 0;
+         }
+         return ab;
+      }
+   }
+
+
+   /**
+    * Returns the smallest value in a that is greater than or equal to
+    * the given key. This method throws an IllegalArgumentException if
+    * a is null or has zero length, or if there is no qualifying
+    * value. The array a is not changed by this method.
+    * @return ceiling
+    * @param a as an array
+    * @param key as a long
+    */
+   public static long ceiling(long[] a, long key) {
+      if (a == null || a.length == 0) {
+         throw new IllegalArgumentException();
+      }
+      else {
+         boolean found = false;
+         long ceiling = 0;
+         for (long i : a) {
+            if (i >= key && (!found || i < ceiling)) {
+               ceiling = i;
+               found = true;
+            }
+         }
+         if (!found) {
+            throw new IllegalArgumentException();
+         }
+         return ceiling;
+      }
+   }
+
+
+   /**
+    * Returns the largest value in a that is less than or equal to
+    * the given key. This method throws an IllegalArgumentException if
+    * a is null or has zero length, or if there is no qualifying
+    * value. The array a is not changed by this method.
+    * @return floor
+    * @param a as an array
+    * @param key as a long
+    */
+   public static long floor(long[] a, long key) {
+      if (a == null || a.length == 0) {
+         throw new IllegalArgumentException();
+      }
+      else {
+         boolean found = false;
+         long floor = 0;
+         for (long i : a) {
+            if (i <= key && (!found || i > floor)) {
+               floor = i;
+               found = true;
+            }
+         }
+         if (!found) {
+            throw new IllegalArgumentException();
+         }
+         return floor;
+      }
+   }
+
+
+   /**
+    * Selects the minimum value from the array a. Doubles are ordered as
+    * by Double.compare: -0.0 is less than 0.0 and NaN is greater than
+    * every other value, so NaN is the min only if every value is NaN.
+    * This method throws IllegalArgumentException if a is null or has
+    * zero length. The array a is not changed by this method.
+    * @return the min
+    * @param a as an array
+    */
+   public static double min(double[] a) {
+      if (a == null || a.length == 0) {
+         throw new IllegalArgumentException();
+      }
+      else {
+         long min = key(a[0]);
+         for (int i = 1; i < a.length; i++) {
+            min = Math.min(min, key(a[i]));
+         }
+         return doubleOf(min);
+      }
+   }
+
+
+   /**
+    * Selects the maximum value from the array a, ordered as by
+    * Double.compare, so the max is NaN if a contains NaN. This method
+    * throws IllegalArgumentException if a is null or has zero length.
+    * The array a is not changed by this method.
+    * @return the max
+    * @param a as an array
+    */
+   public static double max(double[] a) {
+      if (a == null || a.length == 0) {
+         throw new IllegalArgumentException();
+      }
+      else {
+         long max = key(a[0]);
+         for (int i = 1; i < a.length; i++) {
+            max = Math.max(max, key(a[i]));
+         }
+         return doubleOf(max);
+      }
+   }
+
+
+   /**
+    * Selects the kth minimum distinct value from the array a, ordered
+    * as by Double.compare; all NaNs count as one value. This method
+    * throws IllegalArgumentException if a is null, has zero length, or
+    * if there is no kth minimum value. The array a is not changed by
+    * this method.
+    * @return the kmin
+    * @param a as an array
+    * @param k as an int
+    */
+   public static double kmin(double[] a, int k) {
+      if (a == null || a.length == 0 || k < 1 || k > a.length) {
+         throw new IllegalArgumentException();
+      }
+      else {
+         return doubleOf(kth(keys(a), k, false));
+      }
+   }
+
+
+   /**
+    * Selects the kth maximum distinct value from the array a, ordered
+    * as by Double.compare; all NaNs count as one value. This method
+    * throws IllegalArgumentException if a is null, has zero length, or
+    * if there is no kth maximum value. The array a is not changed by
+    * this method.
+    * @return the kmax
+    * @param a as an array
+    * @param k as an int
+    */
+   public static double kmax(double[] a, int k) {
+      if (a == null || a.length == 0 || k < 1 || k > a.length) {
+         throw new IllegalArgumentException();
+      }
+      else {
+         return doubleOf(kth(keys(a), k, true));
+      }
+   }
+
+
+   /**
+    * Returns an array containing all the values in a in the range
+    * [low..high], ordered as by Double.compare, including duplicates,
+    * in the order they appear in a. If there are no qualifying values,
+    * this method returns a zero-length array. This method throws an
+    * IllegalArgumentException if a is null or has zero length. The
+    * array a is not changed by this method.
+    * @return the values in range
+    * @param a as an array
+    * @param low as a double
+    * @param high as a double
+    */
+   public static double[] range(double[] a, double low, double high) {
+      if (a == null || a.length == 0) {
+         throw new IllegalArgumentException();
+      }
+      else {
+         long lowKey = key(low);
+         long highKey = key(high);
+         if (lowKey > highKey) {
+            return new double[0];
+         }
+         long span = highKey - lowKey;
+         int count = 0;
+         for (double i : a) {
+            count += (Long.compareUnsigned(key(i) - lowKey, span) <= 0)
+               ? 1 : 0;
+         }
+         double[] ab = new double[count];
+         int id = 0;
+         for (int j = 0; id < count; j++) {
+            ab[id] = a[j];
+            id += (Long.compareUnsigned(key(a[j]) - lowKey, span) <= 0)
+               ? 1 : 0;
+         }
+         return ab;
+      }
+   }
+
+
+   /**
+    * Returns the smallest value in a that is greater than or equal to
+    * the given key, ordered as by Double.compare. This method throws an
+    * IllegalArgumentException if a is null or has zero length, or if
+    * there is no qualifying value. The array a is not changed by this
+    * method.
+    * @return ceiling
+    * @param a as an array
+    * @param key as a double
+    */
+   public static double ceiling(double[] a, double key) {
+      if (a == null || a.length == 0) {
+         throw new IllegalArgumentException();
+      }
+      else {
+         long k = key(key);
+         boolean found = false;
+         long ceiling = 0;
+         for (double d : a) {
+            long i = key(d);
+            if (i >= k && (!found || i < ceiling)) {
+               ceiling = i;
+               found = true;
+            }
+         }
+         if (!found) {
+            throw new IllegalArgumentException();
+         }
+         return doubleOf(ceiling);
+      }
+   }
+
+
+   /**
+    * Returns the largest value in a that is less than or equal to the
+    * given key, ordered as by Double.compare. This method throws an
+    * IllegalArgumentException if a is null or has zero length, or if
+    * there is no qualifying value. The array a is not changed by this
+    * method.
+    * @return floor
+    * @param a as an array
+    * @param key as a double
+    */
+   public static double floor(double[] a, double key) {
+      if (a == null || a.length == 0) {
+         throw new IllegalArgumentException();
+      }
+      else {
+         long k = key(key);
+         boolean found = false;
+         long floor = 0;
+         for (double d : a) {
+            long i = key(d);
+            if (i <= k && (!found || i > floor)) {
+               floor = i;
+               found = true;
+            }
+         }
+         if (!found) {
+            throw new IllegalArgumentException();
+         }
+         return doubleOf(floor);
+      }
+   }
+
+
+   /**
+    * Selects the minimum value from the array a, ordered as by
+    * Float.compare, so NaN is the min only if every value is NaN. This
+    * method throws IllegalArgumentException if a is null or has zero
+    * length. The array a is not changed by this method.
+    * @return the min
+    * @param a as an array
+    */
+   public static float min(float[] a) {
+      if (a == null || a.length == 0) {
+         throw new IllegalArgumentException();
+      }
+      else {
+         int min = key(a[0]);
+         for (int i = 1; i < a.length; i++) {
+            min = Math.min(min, key(a[i]));
+         }
+         return floatOf(min);
+      }
+   }
+
+
+   /**
+    * Selects the maximum value from the array a, ordered as by
+    * Float.compare, so the max is NaN if a contains NaN. This method
+    * throws IllegalArgumentException if a is null or has zero length.
+    * The array a is not changed by this method.
+    * @return the max
+    * @param a as an array
+    */
+   public static float max(float[] a) {
+      if (a == null || a.length == 0) {
+         throw new IllegalArgumentException();
+      }
+      else {
+         int max = key(a[0]);
+         for (int i = 1; i < a.length; i++) {
+            max = Math.max(max, key(a[i]));
+         }
+         return floatOf(max);
+      }
+   }
+
+
+   /**
+    * Selects the kth minimum distinct value from the array a, ordered
+    * as by Float.compare; all NaNs count as one value. This method
+    * throws IllegalArgumentException if a is null, has zero length, or
+    * if there is no kth minimum value. The array a is not changed by
+    * this method.
+    * @return the kmin
+    * @param a as an array
+    * @param k as an int
+    */
+   public static float kmin(float[] a, int k) {
+      if (a == null || a.length == 0 || k < 1 || k > a.length) {
+         throw new IllegalArgumentException();
+      }
+      else {
+         return floatOf(kmin(keys(a), k));
+      }
+   }
+
+
+   /**
+    * Selects the kth maximum distinct value from the array a, ordered
+    * as by Float.compare; all NaNs count as one value. This method
+    * throws IllegalArgumentException if a is null, has zero length, or
+    * if there is no kth maximum value. The array a is not changed by
+    * this method.
+    * @return the kmax
+    * @param a as an array
+    * @param k as an int
+    */
+   public static float kmax(float[] a, int k) {
+      if (a == null || a.length == 0 || k < 1 || k > a.length) {
+         throw new IllegalArgumentException();
+      }
+      else {
+         return floatOf(kmax(keys(a), k));
+      }
+   }
+
+
+   /**
+    * Returns an array containing all the values in a in the range
+    * [low..high], ordered as by Float.compare, including duplicates,
+    * in the order they appear in a. If there are no qualifying values,
+    * this method returns a zero-length array. This method throws an
+    * IllegalArgumentException if a is null or has zero length. The
+    * array a is not changed by this method.
+    * @return the values in range
+    * @param a as an array
+    * @param low as a float
+    * @param high as a float
+    */
+   public static float[] range(float[] a, float low, float high) {
+      if (a == null || a.length == 0) {
+         throw new IllegalArgumentException();
+      }
+      else {
+         int lowKey = key(low);
+         int highKey = key(high);
+         if (lowKey > highKey) {
+            return new float[0];
+         }
+         int span = highKey - lowKey;
+         int count = 0;
+         for (float i : a) {
+            count += (Integer.compareUnsigned(key(i) - lowKey, span) <= 0)
+               ? 1 : 0;
+         }
+         float[] ab = new float[count];
+         int id = 0;
+         for (int j = 0; id < count; j++) {
+            ab[id] = a[j];
+            id += (Integer.compareUnsigned(key(a[j]) - lowKey, span) <= 0)
+               ? 1 : 0;
+         }
+         return ab;
+      }
+   }
+
+
+   /**
+    * Returns the smallest value in a that is greater than or equal to
+    * the given key, ordered as by Float.compare. This method throws an
+    * IllegalArgumentException if a is null or has zero length, or if
+    * there is no qualifying value. The array a is not changed by this
+    * method.
+    * @return ceiling
+    * @param a as an array
+    * @param key as a float
+    */
+   public static float ceiling(float[] a, float key) {
+      if (a == null || a.length == 0) {
+         throw new IllegalArgumentException();
+      }
+      else {
+         int k = key(key);
+         boolean found = false;
+         int ceiling = 0;
+         for (float f : a) {
+            int i = key(f);
+            if (i >= k && (!found || i < ceiling)) {
+               ceiling = i;
+               found = true;
+            }
+         }
+         if (!found) {
+            throw new IllegalArgumentException();
+         }
+         return floatOf(ceiling);
+      }
+   }
+
+
+   /**
+    * Returns the largest value in a that is less than or equal to the
+    * given key, ordered as by Float.compare. This method throws an
+    * IllegalArgumentException if a is null or has zero length, or if
+    * there is no qualifying value. The array a is not changed by this
+    * method.
+    * @return floor
+    * @param a as an array
+    * @param key as a float
+    */
+   public static float floor(float[] a, float key) {
+      if (a == null || a.length == 0) {
+         throw new IllegalArgumentException();
+      }
+      else {
+         int k = key(key);
+         boolean found = false;
+         int floor = 0;
+         for (float f : a) {
+            int i = key(f);
+            if (i <= k && (!found || i > floor)) {
+               floor = i;
+               found = true;
+            }
+         }
+         if (!found) {
+            throw new IllegalArgumentException();
+         }
+         return floatOf(floor);
+      }
+   }
+
+
+   /**
+    * Returns the keys packed with their original positions, key in the
+    * high half and position in the low half of each long, sorted by key.
+    * @return the sorted keys
+    * @param keys as an array
+    */
+   private static long[] keyOrder(int[] keys) {
+      long[] order = new long[keys.length];
+      for (int i = 0; i < keys.length; i++) {
+         order[i] = ((long) keys[i] << 32) | i;
+      }
+      Arrays.sort(order);
+      return order;
+   }
+
+
+   /**
+    * Returns the number of keys in order that are less than v, or less
+    * than or equal to v if inclusive is true.
+    * @return the rank of v
+    * @param order as an array from keyOrder
+    * @param v as an int
+    * @param inclusive as a boolean
+    */
+   private static int rank(long[] order, int v, boolean inclusive) {
+      int lo = 0;
+      int hi = order.length;
+      while (lo < hi) {
+         int mid = (lo + hi) >>> 1;
+         int key = (int) (order[mid] >> 32);
+         if (key < v || (inclusive && key == v)) {
+            lo = mid + 1;
+         }
+         else {
+            hi = mid;
+         }
+      }
+      return lo;
+   }
+
+
+   /**
+    * Returns a VectorIntKernels, or null if it cannot be loaded because
+    * the class was not compiled or the JVM was started without
+    * --add-modules jdk.incubator.vector.
+    * @return the kernels or null
+    */
+   private static IntKernels loadKernels() {
+      try {
+         return (IntKernels) Class.forName("VectorIntKernels")
+            .getDeclaredConstructor().newInstance();
+      }
+      catch (ReflectiveOperationException | LinkageError e) {
+         return null;
+      }
+   }
+
+
+   /** Arrays at or below this length are handled sequentially. */
+   private static final int PARALLEL_THRESHOLD = 1 << 16;
+
+   /** Number of values parallelKmin samples to pick its cutoff. */
+   private static final int SAMPLE_SIZE = 4096;
+
+   /** Subarrays at or below this length are finished by insertion sort. */
+   private static final int INSERTION_CUTOFF = 16;
+
+   /** Largest array length the JVM reliably allocates. */
+   private static final int MAX_TABLE = Integer.MAX_VALUE - 8;
+
+
+   /**
+    * Returns the scratch size used by distinct for an input of length
+    * n: 1.5n + 1 slots, so the table is at most two thirds full, or n
+    * itself if that would exceed MAX_TABLE, in which case distinct sorts
+    * instead of hashing.
+    * @return the scratch size
+    * @param n as an int
+    */
+   private static int tableSize(int n) {
+      long size = n + (n >>> 1) + 1L;
+      return (size > MAX_TABLE) ? n : (int) size;
+   }
+
+
+   /**
+    * Copies the distinct values of a into the front of the scratch
+    * table b and returns how many there are. The values are first
+    * hashed into b (zero marks an empty slot, so an actual zero is
+    * tracked separately) and then compacted in place, so no other
+    * buffer is needed. A value's slot is the high half of its Fibonacci
+    * hash times the table length, so the table need not be a power of
+    * two. The length of b must come from tableSize; if it is no longer
+    * than a, a is copied into b, sorted and compacted instead.
+    * @return the number of distinct values in a
+    * @param a as an array
+    * @param b as the scratch table
+    */
+   private static int distinct(int[] a, int[] b) {
+      if (b.length <= a.length) {
+         System.arraycopy(a, 0, b, 0, a.length);
+         Arrays.sort(b, 0, a.length);
+         int count = 0;
+         for (int i = 0; i < a.length; i++) {
+            if (count == 0 || b[i] != b[count - 1]) {
+               b[count] = b[i];
+               count++;
+            }
+         }
+         return count;
+      }
+      long length = b.length;
+      boolean hasZero = false;
+      for (int v : a) {
+         if (v == 0) {
+            hasZero = true;
+         }
+         else {
+            long h = (v * 0x9E3779B9) & 0xFFFFFFFFL;
+            int i = (int) ((h * length) >>> 32);
+            while (b[i] != 0 && b[i] != v) {
+               i++;
+               if (i == b.length) {
+                  i = 0;
+               }
+            }
+            b[i] = v;
+         }
+      }
+      int count = 0;
+      for (int i = 0; i < b.length; i++) {
+         if (b[i] != 0) {
+            b[count] = b[i];
+            count++;
+         }
+      }
+      if (hasZero) {
+         b[count] = 0;
+         count++;
+      }
+      return count;
+   }
+
+
+   /**
+    * Rearranges the distinct values in b[lo..hi] so that the value that
+    * belongs at index k in sorted order is at index k, and returns k.
+    * This is an introselect: quickselect with a median-of-three pivot
+    * that falls back to a median-of-medians pivot once the partitioning
+    * budget runs out, so the expected running time is linear and the
+    * worst case never degrades to quadratic.
+    * @return k
+    * @param b as an array of distinct values
+    * @param lo as an int
+    * @param hi as an int
+    * @param k as an int
+    */
+   private static int select(int[] b, int lo, int hi, int k) {
+      int budget = 2 * (32 - Integer.numberOfLeadingZeros(hi - lo + 1));
+      while (hi - lo >= INSERTION_CUTOFF) {
+         int p;
+         if (budget > 0) {
+            budget--;
+            p = medianOfThree(b, lo, lo + (hi - lo) / 2, hi);
+         }
+         else {
+            p = medianOfMedians(b, lo, hi);
+         }
+         p = partition(b, lo, hi, p);
+         if (p == k) {
+            return k;
+         }
+         else if (p < k) {
+            lo = p + 1;
+         }
+         else {
+            hi = p - 1;
+         }
+      }
+      insertionSort(b, lo, hi);
+      return k;
+   }
+
+
+   /**
+    * Returns whichever of the indexes i, j, and m holds the median of
+    * the three values stored there.
+    * @return the index of the median
+    * @param b as an array
+    * @param i as an int
+    * @param j as an int
+    * @param m as an int
+    */
+   private static int medianOfThree(int[] b, int i, int j, int m) {
+      if (b[i] < b[j]) {
+         if (b[j] < b[m]) {
+            return j;
+         }
+         return (b[i] < b[m]) ? m : i;
+      }
+      else {
+         if (b[i] < b[m]) {
+            return i;
+         }
+         return (b[j] < b[m]) ? m : j;
+      }
+   }
+
+
+   /**
+    * Moves the median of each group of five in b[lo..hi] to the front
+    * of the subarray and returns the index of the median of those
+    * medians.
+    * @return the index of the pivot
+    * @param b as an array of distinct values
+    * @param lo as an int
+    * @param hi as an int
+    */
+   private static int medianOfMedians(int[] b, int lo, int hi) {
+      int groups = 0;
+      for (int i = lo; i <= hi; i += 5) {
+         int end = Math.min(i + 4, hi);
+         insertionSort(b, i, end);
+         swap(b, lo + groups, i + (end - i) / 2);
+         groups++;
+      }
+      return select(b, lo, lo + groups - 1, lo + (groups - 1) / 2);
+   }
+
+
+   /**
+    * Partitions b[lo..hi] around the value at index p and returns the
+    * final index of that value.
+    * @return the index of the pivot
+    * @param b as an array of distinct values
+    * @param lo as an int
+    * @param hi as an int
+    * @param p as an int
+    */
+   private static int partition(int[] b, int lo, int hi, int p) {
+      int pivot = b[p];
+      swap(b, p, hi);
+      int store = lo;
+      for (int i = lo; i < hi; i++) {
+         if (b[i] < pivot) {
+            swap(b, store, i);
+            store++;
+         }
+      }
+      swap(b, store, hi);
+      return store;
+   }
+
+
+   /**
+    * Sorts b[lo..hi] in place by insertion sort.
+    * @param b as an array
+    * @param lo as an int
+    * @param hi as an int
+    */
+   private static void insertionSort(int[] b, int lo, int hi) {
+      for (int i = lo + 1; i <= hi; i++) {
+         int v = b[i];
+         int j = i - 1;
+         while (j >= lo && b[j] > v) {
+            b[j + 1] = b[j];
+            j--;
+         }
+         b[j + 1] = v;
+      }
+   }
+
+
+   /**
+    * Swaps b[i] and b[j].
+    * @param b as an array
+    * @param i as an int
+    * @param j as an int
+    */
+   private static void swap(int[] b, int i, int j) {
+      int t = b[i];
+      b[i] = b[j];
+      b[j] = t;
+   }
+
+
+   /**
+    * Returns a long whose signed order matches the order Double.compare
+    * gives d. Negative doubles have their magnitude bits flipped so
+    * that larger magnitudes sort lower; every NaN maps to the one
+    * canonical NaN, which sorts above positive infinity.
+    * @return the sort key
+    * @param d as a double
+    */
+   private static long key(double d) {
+      long bits = Double.doubleToLongBits(d);
+      return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+   }
+
+
+   /**
+    * Returns the double whose sort key is k; key is its own inverse.
+    * @return the double
+    * @param k as a sort key
+    */
+   private static double doubleOf(long k) {
+      return Double.longBitsToDouble(k ^ ((k >> 63) & Long.MAX_VALUE));
+   }
+
+
+   /**
+    * Returns the sort keys of the values in a.
+    * @return the keys
+    * @param a as an array
+    */
+   private static long[] keys(double[] a) {
+      long[] keys = new long[a.length];
+      for (int i = 0; i < a.length; i++) {
+         keys[i] = key(a[i]);
+      }
+      return keys;
+   }
+
+
+   /**
+    * Returns an int whose signed order matches the order Float.compare
+    * gives f, as key(double) does for doubles.
+    * @return the sort key
+    * @param f as a float
+    */
+   private static int key(float f) {
+      int bits = Float.floatToIntBits(f);
+      return bits ^ ((bits >> 31) & Integer.MAX_VALUE);
+   }
+
+
+   /**
+    * Returns the float whose sort key is k.
+    * @return the float
+    * @param k as a sort key
+    */
+   private static float floatOf(int k) {
+      return Float.intBitsToFloat(k ^ ((k >> 31) & Integer.MAX_VALUE));
+   }
+
+
+   /**
+    * Returns the sort keys of the values in a.
+    * @return the keys
+    * @param a as an array
+    */
+   private static int[] keys(float[] a) {
+      int[] keys = new int[a.length];
+      for (int i = 0; i < a.length; i++) {
+         keys[i] = key(a[i]);
+      }
+      return keys;
+   }
+
+
+   /**
+    * Returns the kth smallest distinct value in a, or the kth largest
+    * if fromTop is true, by the same hash-and-introselect method that
+    * kmin(int[], int) uses. This method throws IllegalArgumentException
+    * if a has fewer than k distinct values.
+    * @return the selected value
+    * @param a as an array
+    * @param k as an int
+    * @param fromTop as a boolean
+    */
+   private static long kth(long[] a, int k, boolean fromTop) {
+      long[] b = new long[tableSize(a.length)];
+      int distinct = distinct(a, b);
+      if (k > distinct) {
+         throw new IllegalArgumentException();
+      }
+      return b[select(b, 0, distinct - 1, fromTop ? distinct - k : k - 1)];
+   }
+
+
+   /**
+    * Copies the distinct values of a into the front of the scratch
+    * table b and returns how many there are, as distinct(int[], int[])
+    * does.
+    * @return the number of distinct values in a
+    * @param a as an array
+    * @param b as the scratch table
+    */
+   private static int distinct(long[] a, long[] b) {
+      if (b.length <= a.length) {
+         System.arraycopy(a, 0, b, 0, a.length);
+         Arrays.sort(b, 0, a.length);
+         int count = 0;
+         for (int i = 0; i < a.length; i++) {
+            if (count == 0 || b[i] != b[count - 1]) {
+               b[count] = b[i];
+               count++;
+            }
+         }
+         return count;
+      }
+      long length = b.length;
+      boolean hasZero = false;
+      for (long v : a) {
+         if (v == 0) {
+            hasZero = true;
+         }
+         else {
+            long h = (v * 0x9E3779B97F4A7C15L) >>> 32;
+            int i = (int) ((h * length) >>> 32);
+            while (b[i] != 0 && b[i] != v) {
+               i++;
+               if (i == b.length) {
+                  i = 0;
+               }
+            }
+            b[i] = v;
+         }
+      }
+      int count = 0;
+      for (int i = 0; i < b.length; i++) {
+         if (b[i] != 0) {
+            b[count] = b[i];
+            count++;
+         }
+      }
+      if (hasZero) {
+         b[count] = 0;
+         count++;
+      }
+      return count;
+   }
+
+
+   /**
+    * Introselect over the distinct values in b[lo..hi], as
+    * select(int[], int, int, int) does.
+    * @return k
+    * @param b as an array of distinct values
+    * @param lo as an int
+    * @param hi as an int
+    * @param k as an int
+    */
+   private static int select(long[] b, int lo, int hi, int k) {
+      int budget = 2 * (32 - Integer.numberOfLeadingZeros(hi - lo + 1));
+      while (hi - lo >= INSERTION_CUTOFF) {
+         int p;
+         if (budget > 0) {
+            budget--;
+            p = medianOfThree(b, lo, lo + (hi - lo) / 2, hi);
+         }
+         else {
+            p = medianOfMedians(b, lo, hi);
+         }
+         p = partition(b, lo, hi, p);
+         if (p == k) {
+            return k;
+         }
+         else if (p < k) {
+            lo = p + 1;
+         }
+         else {
+            hi = p - 1;
+         }
+      }
+      insertionSort(b, lo, hi);
+      return k;
+   }
+
+
+   /**
+    * Returns whichever of the indexes i, j, and m holds the median of
+    * the three values stored there.
+    * @return the index of the median
+    * @param b as an array
+    * @param i as an int
+    * @param j as an int
+    * @param m as an int
+    */
+   private static int medianOfThree(long[] b, int i, int j, int m) {
+      if (b[i] < b[j]) {
+         if (b[j] < b[m]) {
+            return j;
+         }
+         return (b[i] < b[m]) ? m : i;
+      }
+      else {
+         if (b[i] < b[m]) {
+            return i;
+         }
+         return (b[j] < b[m]) ? m : j;
+      }
+   }
+
+
+   /**
+    * Moves the median of each group of five in b[lo..hi] to the front
+    * of the subarray and returns the index of the median of those
+    * medians.
+    * @return the index of the pivot
+    * @param b as an array of distinct values
+    * @param lo as an int
+    * @param hi as an int
+    */
+   private static int medianOfMedians(long[] b, int lo, int hi) {
+      int groups = 0;
+      for (int i = lo; i <= hi; i += 5) {
+         int end = Math.min(i + 4, hi);
+         insertionSort(b, i, end);
+         swap(b, lo + groups, i + (end - i) / 2);
+         groups++;
+      }
+      return select(b, lo, lo + groups - 1, lo + (groups - 1) / 2);
+   }
+
+
+   /**
+    * Partitions b[lo..hi] around the value at index p and returns the
+    * final index of that value.
+    * @return the index of the pivot
+    * @param b as an array of distinct values
+    * @param lo as an int
+    * @param hi as an int
+    * @param p as an int
+    */
+   private static int partition(long[] b, int lo, int hi, int p) {
+      long pivot = b[p];
+      swap(b, p, hi);
+      int store = lo;
+      for (int i = lo; i < hi; i++) {
+         if (b[i] < pivot) {
+            swap(b, store, i);
+            store++;
+         }
+      }
+      swap(b, store, hi);
+      return store;
+   }
+
+
+   /**
+    * Sorts b[lo..hi] in place by insertion sort.
+    * @param b as an array
+    * @param lo as an int
+    * @param hi as an int
+    */
+   private static void insertionSort(long[] b, int lo, int hi) {
+      for (int i = lo + 1; i <= hi; i++) {
+         long v = b[i];
+         int j = i - 1;
+         while (j >= lo && b[j] > v) {
+            b[j + 1] = b[j];
+            j--;
+         }
+         b[j + 1] = v;
+      }
+   }
+
+
+   /**
+    * Swaps b[i] and b[j].
+    * @param b as an array
+    * @param i as an int
+    * @param j as an int
+    */
+   private static void swap(long[] b, int i, int j) {
+      long t = b[i];
+      b[i] = b[j];
+      b[j] = t;
+   }
+
+
+   /**
+    * Finds the minimum or maximum of a[lo..hi) by splitting it in half
+    * until the pieces are no longer than PARALLEL_THRESHOLD.
+    */
+   private static final class ExtremeTask extends RecursiveTask<Integer> {
+      private static final long serialVersionUID = 1L;
+      private final int[] a;
+      private final int lo;
+      private final int hi;
+      private final boolean max;
+
+      ExtremeTask(int[] a, int lo, int hi, boolean max) {
+         this.a = a;
+         this.lo = lo;
+         this.hi = hi;
+         this.max = max;
+      }
+
+      @Override
+      protected Integer compute() {
+         if (hi - lo <= PARALLEL_THRESHOLD) {
+            int best = a[lo];
+            if (max) {
+               for (int i = lo + 1; i < hi; i++) {
+                  best = Math.max(best, a[i]);
+               }
+            }
+            else {
+               for (int i = lo + 1; i < hi; i++) {
+                  best = Math.min(best, a[i]);
+               }
+            }
+            return best;
+         }
+         int mid = (lo + hi) >>> 1;
+         ExtremeTask left = new ExtremeTask(a, lo, mid, max);
+         left.fork();
+         int right = new ExtremeTask(a, mid, hi, max).compute();
+         int l = left.join();
+         return max ? Math.max(l, right) : Math.min(l, right);
+      }
+   }
+
+
+   /**
+    * Runs one phase of parallelRange over chunks [from..to) of a, each
+    * PARALLEL_THRESHOLD values long. With no output array, chunk c
+    * stores its count of values in [low..high] in offsets[c + 1]. With
+    * an output array, chunk c copies its values into out starting at
+    * offsets[c].
+    */
+   private static final class RangeTask extends RecursiveAction {
+      private static final long serialVersionUID = 1L;
+      private final int[] a;
+      private final int low;
+      private final int high;
+      private final int[] offsets;
+      private final int[] out;
+      private final int from;
+      private final int to;
+
+      RangeTask(int[] a, int low, int high, int[] offsets, int[] out,
+                int from, int to) {
+         this.a = a;
+         this.low = low;
+         this.high = high;
+         this.offsets = offsets;
+         this.out = out;
+         this.from = from;
+         this.to = to;
+      }
+
+      @Override
+      protected void compute() {
+         if (to - from > 1) {
+            int mid = (from + to) >>> 1;
+            invokeAll(new RangeTask(a, low, high, offsets, out, from, mid),
+                      new RangeTask(a, low, high, offsets, out, mid, to));
+            return;
+         }
+         int start = from * PARALLEL_THRESHOLD;
+         int end = Math.min(start + PARALLEL_THRESHOLD, a.length);
+         int span = high - low;
+         if (out == null) {
+            int count = 0;
+            for (int i = start; i < end; i++) {
+               count += (Integer.compareUnsigned(a[i] - low, span) <= 0)
+                  ? 1 : 0;
             }
+            offsets[from + 1] = count;
          }
-         int minSize = c[0];
-         for (int i:c) {
-            if (i < minSize) {
-               minSize = i;
+         else {
+            int id = offsets[from];
+            for (int i = start; i < end; i++) {
+               if (Integer.compareUnsigned(a[i] - low, span) <= 0) {
+                  out[id] = a[i];
+                  id++;
+               }
             }
          }
-         return key - minSize;
       }
    }
 
@@ -0,0 +1,303 @@
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * SelectorBenchmark.java
+ * Times the selection methods of Selector on synthetic int arrays so that
+ * changes to Selector can be checked for regressions. Usage:
+ *
+ *    java SelectorBenchmark generator method size...
+ *
+ * where generator is one of uniform, duplicates or all; method is one of
+ * sort, select, min, max, range or all; and each size is a number of
+ * ints, 10 to 100000000 by default. A method is skipped at sizes above
+ * its limit in LIMITS, since sort and select need up to 1.5n ints of
+ * scratch on top of the input.
+ *
+ * sort is the kmin Selector used before introselect: copy the array, sort
+ * the copy and walk its distinct values, n ints of scratch. select is
+ * Selector.kmin as it is now: hash the distinct values into a table of
+ * about 1.5n ints and select in place. Both are asked for the same k, so
+ * the rows at each size show where selection overtakes sorting, and the
+ * bytes per call show what the larger scratch table costs.
+ *
+ * min, max and range are the linear scans of Selector, range asked for
+ * the middle half of the generated values. Selector runs them on the
+ * Vector API when vector/VectorIntKernels.java is compiled in and the
+ * JVM is started with --add-modules jdk.incubator.vector, and on its
+ * scalar loops otherwise, so running the same sweep both ways compares
+ * the two; the first line printed says which one is in use.
+ *
+ * Each method is called until WARMUP_NANOS have passed, and then until
+ * MEASURE_NANOS have passed, at least once each time. For the measured
+ * calls it prints the throughput in calls per second, the mean and 99th
+ * percentile time of a call, and the bytes allocated per call and per
+ * second by the calling thread.
+ *
+ * @author  Ryan Litwin (rpl0010@auburn.edu)
+ * @version 10-18-2026
+ *
+ */
+public final class SelectorBenchmark {
+
+   /** the array generators. */
+   private static final String[] GENERATORS = {"uniform", "duplicates"};
+
+   /** the selection methods. */
+   private static final String[] METHODS =
+      {"sort", "select", "min", "max", "range"};
+
+   /** LIMITS[i] is the largest size METHODS[i] is run at. */
+   private static final int[] LIMITS =
+      {10000000, 10000000, 100000000, 100000000, 100000000};
+
+   /** the sizes run when none are given. */
+   private static final int[] SIZES = {10, 100, 1000, 10000, 100000,
+      1000000, 10000000, 100000000};
+
+   /** copies of each value from the duplicates generator. */
+   private static final int COPIES = 10;
+
+   /** time spent calling a method before measuring it. */
+   private static final long WARMUP_NANOS = 1000000000L;
+
+   /** time spent measuring a method. */
+   private static final long MEASURE_NANOS = 3000000000L;
+
+   /** seed of every generator, so runs can be compared. */
+   private static final long SEED = 20261018L;
+
+   /**
+    * Can't instantiate this class.
+    */
+   private SelectorBenchmark() { }
+
+   /** Drives execution. */
+   public static void main(String[] args) {
+      if (args.length < 2) {
+         System.out.println("Usage: java SelectorBenchmark generator method"
+            + " size...");
+         return;
+      }
+      String[] generators = select(args[0], GENERATORS);
+      String[] methods = select(args[1], METHODS);
+      if (generators == null || methods == null) {
+         System.out.println("Error: unknown generator or method.");
+         return;
+      }
+      int[] sizes = SIZES;
+      if (args.length > 2) {
+         sizes = new int[args.length - 2];
+         for (int i = 0; i < sizes.length; i++) {
+            try {
+               sizes[i] = Integer.parseInt(args[i + 2]);
+            }
+            catch (NumberFormatException e) {
+               sizes[i] = -1;
+            }
+            if (sizes[i] < 1) {
+               System.out.println("Error: " + args[i + 2]
+                  + " is not a positive size.");
+               return;
+            }
+         }
+      }
+      System.out.println("kernels: " + (vectorized() ? "vector" : "scalar"));
+      System.out.printf("%-10s %-8s %10s %11s %9s %10s %10s %10s %12s %10s%n",
+         "generator", "method", "size", "result", "calls", "calls/s",
+         "mean ms", "p99 ms", "bytes/call", "MB/s");
+      for (String generator : generators) {
+         for (int size : sizes) {
+            int[] a = generate(generator, size);
+            for (String method : methods) {
+               run(generator, method, size, a);
+            }
+         }
+      }
+   }
+
+   /**
+    * Returns the names matching name: all of names for "all", the one
+    * equal to name, or null if there is none.
+    * @param name as a name or "all".
+    * @param names as the known names.
+    * @return the selected names.
+    */
+   private static String[] select(String name, String[] names) {
+      if (name.equals("all")) {
+         return names;
+      }
+      for (String known : names) {
+         if (known.equals(name)) {
+            return new String[] {name};
+         }
+      }
+      return null;
+   }
+
+   /**
+    * Returns size ints from the named generator.
+    *
+    * uniform: ints spread evenly over a range four times as wide as there
+    * are ints, so most are distinct. duplicates: size / COPIES uniform
+    * ints, each repeated COPIES times.
+    * @param generator as a generator name.
+    * @param size as the number of ints.
+    * @return the ints.
+    */
+   private static int[] generate(String generator, int size) {
+      Random random = new Random(SEED);
+      int width = (int) Math.min(Integer.MAX_VALUE, 4L * size);
+      int[] a = new int[size];
+      if (generator.equals("uniform")) {
+         for (int i = 0; i < size; i++) {
+            a[i] = random.nextInt(width);
+         }
+      }
+      else if (generator.equals("duplicates")) {
+         int distinct = Math.max(1, size / COPIES);
+         for (int i = 0; i < size; i++) {
+            a[i] = (i < distinct) ? random.nextInt(width) : a[i % distinct];
+         }
+      }
+      else {
+         throw new IllegalArgumentException();
+      }
+      return a;
+   }
+
+   /**
+    * Measures one method on one array and prints a row of results.
+    * @param generator as the name of the generator of a.
+    * @param method as a method name.
+    * @param size as the number of ints generated.
+    * @param a as the ints.
+    */
+   private static void run(String generator, String method, int size,
+      int[] a) {
+      int limit = LIMITS[Arrays.asList(METHODS).indexOf(method)];
+      if (size > limit) {
+         System.out.printf("%-10s %-8s %10d   skipped: above %d ints%n",
+            generator, method, size, limit);
+         return;
+      }
+      int k = Math.max(1, size / (2 * COPIES));
+      long stop = System.nanoTime() + WARMUP_NANOS;
+      do {
+         call(method, a, k);
+      } while (System.nanoTime() < stop);
+      long[] times = new long[16];
+      int calls = 0;
+      int result = 0;
+      long bytes = allocated();
+      long begin = System.nanoTime();
+      stop = begin + MEASURE_NANOS;
+      long end;
+      do {
+         long start = System.nanoTime();
+         result = call(method, a, k);
+         end = System.nanoTime();
+         if (calls == times.length) {
+            times = Arrays.copyOf(times, 2 * calls);
+         }
+         times[calls] = end - start;
+         calls++;
+      } while (end < stop);
+      bytes = allocated() - bytes;
+      long total = end - begin;
+      Arrays.sort(times, 0, calls);
+      long p99 = times[(int) Math.ceil(0.99 * calls) - 1];
+      long sum = 0;
+      for (int i = 0; i < calls; i++) {
+         sum += times[i];
+      }
+      System.out.printf("%-10s %-8s %10d %11d %9d %10.2f %10.3f %10.3f %12d"
+         + " %10.1f%n", generator, method, size, result, calls,
+         calls * 1e9 / total, sum / 1e6 / calls, p99 / 1e6,
+         bytes / calls, bytes * 1e3 / total);
+   }
+
+   /**
+    * Calls the named method on a.
+    * @param method as a method name.
+    * @param a as the ints.
+    * @param k as the rank asked for by sort and select.
+    * @return the value found, or the number of values for range.
+    */
+   private static int call(String method, int[] a, int k) {
+      if (method.equals("sort")) {
+         return sortKmin(a, k);
+      }
+      else if (method.equals("select")) {
+         return Selector.kmin(a, k);
+      }
+      else if (method.equals("min")) {
+         return Selector.min(a);
+      }
+      else if (method.equals("max")) {
+         return Selector.max(a);
+      }
+      else {
+         long width = Math.min(Integer.MAX_VALUE, 4L * a.length);
+         return Selector.range(a, (int) (width / 4), (int) (3 * width / 4))
+            .length;
+      }
+   }
+
+   /**
+    * Selects the kth minimum value of a the way Selector did before
+    * introselect: sort a copy and count the distinct values in order.
+    * @param a as the ints.
+    * @param k as the rank asked for, at most the distinct values in a.
+    * @return the kth minimum value of a.
+    */
+   private static int sortKmin(int[] a, int k) {
+      int[] b = Arrays.copyOf(a, a.length);
+      Arrays.sort(b);
+      int distinct = 1;
+      for (int i = 1; i < b.length; i++) {
+         if (b[i] != b[i - 1]) {
+            distinct++;
+            if (distinct == k) {
+               return b[i];
+            }
+         }
+      }
+      return b[0];
+   }
+
+   /**
+    * Returns true if Selector can load its vectorized scans: the
+    * VectorIntKernels class is on the class path and the
+    * jdk.incubator.vector module is in the boot layer.
+    * @return true if the vector kernels are in use.
+    */
+   private static boolean vectorized() {
+      try {
+         Class.forName("VectorIntKernels", false,
+            SelectorBenchmark.class.getClassLoader());
+      }
+      catch (ClassNotFoundException e) {
+         return false;
+      }
+      return ModuleLayer.boot().findModule("jdk.incubator.vector")
+         .isPresent();
+   }
+
+   /**
+    * Returns the bytes allocated by this thread so far, or 0 if the JVM
+    * does not report them.
+    * @return the bytes allocated.
+    */
+   private static long allocated() {
+      java.lang.management.ThreadMXBean bean =
+         ManagementFactory.getThreadMXBean();
+      if (bean instanceof com.sun.management.ThreadMXBean) {
+         return ((com.sun.management.ThreadMXBean) bean)
+            .getThreadAllocatedBytes(Thread.currentThread().getId());
+      }
+      return 0;
+   }
+
+}
@@ -0,0 +1,239 @@
+import java.util.Arrays;
+
+/**
+* Answers the Selector queries against one array of ints that is
+* preprocessed once. The array is sorted and its distinct values are
+* stored with their counts, so kmin and kmax take constant time,
+* floor and ceiling take logarithmic time, and range takes two binary
+* searches plus a copy. Every query throws in the same cases as the
+* matching static method in Selector and returns the same value, except
+* that range returns the same values in ascending order rather than in
+* the order they appear in the source array.
+*
+* @author   Ryan Litwin (rpl0010@auburn.edu)
+* @version  10/18/2026
+*
+*/
+public final class SortedIntIndex {
+
+   /** all values of the source array in ascending order. */
+   private final int[] sorted;
+
+   /** the distinct values of the source array in ascending order. */
+   private final int[] values;
+
+   /** counts[i] is the number of times values[i] occurs. */
+   private final int[] counts;
+
+
+   /**
+    * Builds an index over the values in a. This constructor throws
+    * IllegalArgumentException if a is null or has zero length. The
+    * array a is not changed, and later changes to a are not seen by
+    * this index.
+    * @param a as an array
+    */
+   public SortedIntIndex(int[] a) {
+      if (a == null || a.length == 0) {
+         throw new IllegalArgumentException();
+      }
+      sorted = Arrays.copyOf(a, a.length);
+      Arrays.sort(sorted);
+      int distinct = 1;
+      for (int i = 1; i < sorted.length; i++) {
+         if (sorted[i] != sorted[i - 1]) {
+            distinct++;
+         }
+      }
+      values = new int[distinct];
+      counts = new int[distinct];
+      int id = 0;
+      values[0] = sorted[0];
+      for (int i = 0; i < sorted.length; i++) {
+         if (sorted[i] != values[id]) {
+            id++;
+            values[id] = sorted[i];
+         }
+         counts[id]++;
+      }
+   }
+
+
+   /**
+    * Returns the number of values in the indexed array.
+    * @return the size
+    */
+   public int size() {
+      return sorted.length;
+   }
+
+
+   /**
+    * Returns the number of distinct values in the indexed array.
+    * @return the distinct count
+    */
+   public int distinct() {
+      return values.length;
+   }
+
+
+   /**
+    * Returns the number of times key occurs in the indexed array.
+    * @return the count
+    * @param key as an int
+    */
+   public int count(int key) {
+      int i = Arrays.binarySearch(values, key);
+      if (i < 0) {
+         return 0;
+      }
+      return counts[i];
+   }
+
+
+   /**
+    * Selects the minimum value, as Selector.min does.
+    * @return the min
+    */
+   public int min() {
+      return values[0];
+   }
+
+
+   /**
+    * Selects the maximum value, as Selector.max does.
+    * @return the max
+    */
+   public int max() {
+      return values[values.length - 1];
+   }
+
+
+   /**
+    * Selects the kth minimum value, as Selector.kmin does. This method
+    * throws IllegalArgumentException if k < 1 or if k is larger than
+    * the number of distinct values.
+    * @return the kmin
+    * @param k as an int
+    */
+   public int kmin(int k) {
+      if (k < 1 || k > values.length) {
+         throw new IllegalArgumentException();
+      }
+      return values[k - 1];
+   }
+
+
+   /**
+    * Selects the kth maximum value, as Selector.kmax does. This method
+    * throws IllegalArgumentException if k < 1 or if k is larger than
+    * the number of distinct values.
+    * @return the kmax
+    * @param k as an int
+    */
+   public int kmax(int k) {
+      if (k < 1 || k > values.length) {
+         throw new IllegalArgumentException();
+      }
+      return values[values.length - k];
+   }
+
+
+   /**
+    * Returns an array containing all the values in the range
+    * [low..high], including duplicates, as Selector.range does. The
+    * values are returned in ascending order rather than in the order
+    * they appeared in the source array. If there are no qualifying
+    * values, this method returns a zero-length array.
+    * @return the values in range
+    * @param low as an int
+    * @param high as an int
+    */
+   public int[] range(int low, int high) {
+      if (low > high) {
+         return new int[0];
+      }
+      int from = lowerBound(sorted, low);
+      int to = upperBound(sorted, high);
+      return Arrays.copyOfRange(sorted, from, to);
+   }
+
+
+   /**
+    * Returns the smallest value that is greater than or equal to key,
+    * as Selector.ceiling does. This method throws an
+    * IllegalArgumentException if there is no qualifying value.
+    * @return ceiling
+    * @param key as an int
+    */
+   public int ceiling(int key) {
+      int i = lowerBound(values, key);
+      if (i == values.length) {
+         throw new IllegalArgumentException();
+      }
+      return values[i];
+   }
+
+
+   /**
+    * Returns the largest value that is less than or equal to key, as
+    * Selector.floor does. This method throws an
+    * IllegalArgumentException if there is no qualifying value.
+    * @return floor
+    * @param key as an int
+    */
+   public int floor(int key) {
+      int i = upperBound(values, key) - 1;
+      if (i < 0) {
+         throw new IllegalArgumentException();
+      }
+      return values[i];
+   }
+
+
+   /**
+    * Returns the index of the first value in the sorted array b that is
+    * greater than or equal to key, or b.length if there is none.
+    * @return the lower bound
+    * @param b as a sorted array
+    * @param key as an int
+    */
+   private static int lowerBound(int[] b, int key) {
+      int lo = 0;
+      int hi = b.length;
+      while (lo < hi) {
+         int mid = (lo + hi) >>> 1;
+         if (b[mid] < key) {
+            lo = mid + 1;
+         }
+         else {
+            hi = mid;
+         }
+      }
+      return lo;
+   }
+
+
+   /**
+    * Returns the index of the first value in the sorted array b that is
+    * greater than key, or b.length if there is none.
+    * @return the upper bound
+    * @param b as a sorted array
+    * @param key as an int
+    */
+   private static int upperBound(int[] b, int key) {
+      int lo = 0;
+      int hi = b.length;
+      while (lo < hi) {
+         int mid = (lo + hi) >>> 1;
+         if (b[mid] <= key) {
+            lo = mid + 1;
+         }
+         else {
+            hi = mid;
+         }
+      }
+      return lo;
+   }
+
+}
@@ -0,0 +1,122 @@
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+* IntKernels on the incubating Vector API, a whole vector of ints per
+* step at the widest shape the CPU supports. It lives apart from the
+* rest of M1 because it compiles only with the module added:
+*
+*    javac --add-modules jdk.incubator.vector IntKernels.java
+*       vector/VectorIntKernels.java
+*
+* and is used only when the JVM runs with the same flag. Selector loads
+* it by name; when it is absent, or the module is, loading fails and
+* Selector falls back to its scalar loops.
+*
+* @author   Ryan Litwin (rpl0010@auburn.edu)
+* @version  10/18/2026
+*
+*/
+final class VectorIntKernels implements IntKernels {
+
+   /** the preferred int species; loading it checks the module. */
+   private static final VectorSpecies<Integer> SPECIES =
+      IntVector.SPECIES_PREFERRED;
+
+   @Override
+   public int min(int[] a) {
+      int i = 0;
+      int bound = SPECIES.loopBound(a.length);
+      int min = Integer.MAX_VALUE;
+      if (bound > 0) {
+         IntVector acc = IntVector.fromArray(SPECIES, a, 0);
+         for (i = SPECIES.length(); i < bound; i += SPECIES.length()) {
+            acc = acc.min(IntVector.fromArray(SPECIES, a, i));
+         }
+         min = acc.reduceLanes(VectorOperators.MIN);
+      }
+      for (; i < a.length; i++) {
+         min = Math.min(min, a[i]);
+      }
+      return min;
+   }
+
+   @Override
+   public int max(int[] a) {
+      int i = 0;
+      int bound = SPECIES.loopBound(a.length);
+      int max = Integer.MIN_VALUE;
+      if (bound > 0) {
+         IntVector acc = IntVector.fromArray(SPECIES, a, 0);
+         for (i = SPECIES.length(); i < bound; i += SPECIES.length()) {
+            acc = acc.max(IntVector.fromArray(SPECIES, a, i));
+         }
+         max = acc.reduceLanes(VectorOperators.MAX);
+      }
+      for (; i < a.length; i++) {
+         max = Math.max(max, a[i]);
+      }
+      return max;
+   }
+
+   @Override
+   public int count(int[] a, int low, int span) {
+      int i = 0;
+      int bound = SPECIES.loopBound(a.length);
+      int count = 0;
+      for (; i < bound; i += SPECIES.length()) {
+         count += inRange(a, i, low, span).trueCount();
+      }
+      for (; i < a.length; i++) {
+         count += (Integer.compareUnsigned(a[i] - low, span) <= 0) ? 1 : 0;
+      }
+      return count;
+   }
+
+   @Override
+   public void copy(int[] a, int low, int span, int[] out) {
+      int i = 0;
+      int bound = SPECIES.loopBound(a.length);
+      int id = 0;
+      // the API has no compress before JDK 19, so a vector whose lanes
+      // are all in range is stored whole and any other is copied lane
+      // by lane; a vector with none in range costs only the compare
+      for (; i < bound && id < out.length; i += SPECIES.length()) {
+         VectorMask<Integer> mask = inRange(a, i, low, span);
+         if (mask.allTrue()) {
+            IntVector.fromArray(SPECIES, a, i).intoArray(out, id);
+            id += SPECIES.length();
+         }
+         else if (mask.anyTrue()) {
+            for (int j = i; j < i + SPECIES.length(); j++) {
+               out[id] = a[j];
+               id += (Integer.compareUnsigned(a[j] - low, span) <= 0) ? 1 : 0;
+               if (id == out.length) {
+                  return;
+               }
+            }
+         }
+      }
+      for (; id < out.length; i++) {
+         out[id] = a[i];
+         id += (Integer.compareUnsigned(a[i] - low, span) <= 0) ? 1 : 0;
+      }
+   }
+
+   /**
+    * Returns the lanes of the vector at a[i] whose value v has v - low,
+    * read as unsigned, at most span.
+    * @return the mask
+    * @param a as an array
+    * @param i as the first index of the vector
+    * @param low as the bottom of the range
+    * @param span as the width of the range, read as unsigned
+    */
+   private static VectorMask<Integer> inRange(int[] a, int i, int low,
+      int span) {
+      return IntVector.fromArray(SPECIES, a, i).sub(low)
+         .compare(VectorOperators.UNSIGNED_LE, span);
+   }
+}
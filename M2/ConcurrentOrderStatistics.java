@@ -0,0 +1,792 @@
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Maintains a changing multiset of values that any number of threads
+ * may add to and remove from while others query it. It answers the same
+ * queries as Selector, with the same distinct-value meaning, in
+ * O(log n) time instead of rescanning a snapshot.
+ *
+ * <p>Values are kept in an order-statistic treap: each node holds one
+ * distinct value with its multiplicity, the number of distinct values
+ * in its subtree and the number of values counting duplicates, so the
+ * kth distinct value and the rank of any value are found in one descent.
+ *
+ * <p>Nodes are never changed once built. An update copies the path from
+ * the root to the nodes it touches and publishes the new root with a
+ * compare-and-set, retrying the copy from the new root if another writer
+ * published first. No thread ever takes a lock or waits for another, but
+ * writes to one root are serialized: under contention they take turns
+ * winning the compare-and-set, and the losers redo their O(log n) copy.
+ *
+ * <p>With the default single stripe every write goes to one root, so
+ * write throughput does not grow with the number of writers. The
+ * striped constructor splits the values by hash code over independent
+ * treaps, each with its own root; writes to different stripes never
+ * conflict. Queries read every root once and combine the stripes: min,
+ * max, floor and ceiling take the best stripe, range merges them, and
+ * kmin and kmax select across them in a few rounds of one descent per
+ * stripe, O(P log^2 n) time at worst for P stripes. Striping thus buys
+ * write scalability with reads that cost tens of times more.
+ *
+ * <p>A query sees every add and remove that returned before it began.
+ * With one stripe it sees a single consistent state; with several, each
+ * stripe is read at a slightly different moment, so a query that
+ * overlaps writes may see some of them and not others.
+ *
+ * @author  Ryan Litwin (rpl0010@auburn.edu)
+ * @version 10-18-26
+ * @param <T> the type of the values
+ */
+public class ConcurrentOrderStatistics<T> {
+
+   /** the total order on values; values equal under it are duplicates. */
+   private final Comparator<T> comp;
+
+   /** the most stripes a structure may be built with. */
+   private static final int MAX_STRIPES = 1 << 16;
+
+   /**
+    * kmin and kmax on several stripes narrow the values in play until
+    * at most this many per stripe are left, and then sort those.
+    */
+   private static final int FINISH = 4;
+
+   /** roots.get(s) is the root of stripe s, or null if it is empty. */
+   private final AtomicReferenceArray<Node<T>> roots;
+
+   /** one less than the number of stripes, a power of two. */
+   private final int mask;
+
+
+   /**
+    * Creates an empty structure ordered by comp with a single stripe.
+    * Values need not have a hashCode consistent with comp.
+    *
+    * @param comp    the Comparator that defines the total order on T
+    * @throws        IllegalArgumentException if comp is null
+    */
+   public ConcurrentOrderStatistics(Comparator<T> comp) {
+      this(comp, 1);
+   }
+
+
+   /**
+    * Creates an empty structure ordered by comp whose values are split
+    * over the given number of stripes by hash code. Values equal under
+    * comp must have equal hash codes, so that duplicates share a stripe;
+    * natural orders of the usual value types satisfy this.
+    *
+    * @param comp    the Comparator that defines the total order on T
+    * @param stripes the number of stripes, a power of two
+    * @throws        IllegalArgumentException if comp is null or stripes
+    *                is not a power of two from 1 to 65536
+    */
+   public ConcurrentOrderStatistics(Comparator<T> comp, int stripes) {
+      if (comp == null || stripes < 1 || stripes > MAX_STRIPES
+         || (stripes & (stripes - 1)) != 0) {
+         throw new IllegalArgumentException();
+      }
+      this.comp = comp;
+      roots = new AtomicReferenceArray<Node<T>>(stripes);
+      mask = stripes - 1;
+   }
+
+
+   /**
+    * Adds one occurrence of value. The value is visible to every query
+    * that begins after this method returns.
+    *
+    * @param value   the value to add
+    * @throws        IllegalArgumentException if value is null
+    */
+   public void add(T value) {
+      if (value == null) {
+         throw new IllegalArgumentException();
+      }
+      int s = stripeOf(value);
+      Node<T> top;
+      do {
+         top = roots.get(s);
+      } while (!roots.compareAndSet(s, top, insert(top, value)));
+   }
+
+
+   /**
+    * Removes one occurrence of value, if there is one. The removal is
+    * visible to every query that begins after this method returns.
+    *
+    * @param value   the value to remove
+    * @throws        IllegalArgumentException if value is null
+    */
+   public void remove(T value) {
+      if (value == null) {
+         throw new IllegalArgumentException();
+      }
+      int s = stripeOf(value);
+      Node<T> top;
+      do {
+         top = roots.get(s);
+         if (find(top, value) == null) {
+            return;
+         }
+      } while (!roots.compareAndSet(s, top, delete(top, value)));
+   }
+
+
+   /**
+    * Returns the number of values held, counting duplicates.
+    *
+    * @return        the number of values
+    */
+   public long size() {
+      long size = 0;
+      for (int s = 0; s <= mask; s++) {
+         size += totalOf(roots.get(s));
+      }
+      return size;
+   }
+
+
+   /**
+    * Returns the minimum value. If there are no values, this method
+    * throws a NoSuchElementException.
+    *
+    * @return        the minimum value
+    * @throws        NoSuchElementException as per above
+    */
+   public T min() {
+      Node<T> best = null;
+      for (int s = 0; s <= mask; s++) {
+         Node<T> n = roots.get(s);
+         while (n != null && n.left != null) {
+            n = n.left;
+         }
+         if (n != null
+            && (best == null || comp.compare(n.value, best.value) < 0)) {
+            best = n;
+         }
+      }
+      if (best == null) {
+         throw new NoSuchElementException();
+      }
+      return best.value;
+   }
+
+
+   /**
+    * Returns the maximum value. If there are no values, this method
+    * throws a NoSuchElementException.
+    *
+    * @return        the maximum value
+    * @throws        NoSuchElementException as per above
+    */
+   public T max() {
+      Node<T> best = null;
+      for (int s = 0; s <= mask; s++) {
+         Node<T> n = roots.get(s);
+         while (n != null && n.right != null) {
+            n = n.right;
+         }
+         if (n != null
+            && (best == null || comp.compare(n.value, best.value) > 0)) {
+            best = n;
+         }
+      }
+      if (best == null) {
+         throw new NoSuchElementException();
+      }
+      return best.value;
+   }
+
+
+   /**
+    * Returns the kth minimum distinct value, as Selector.kmin would. If
+    * there is no kth minimum value, this method throws a
+    * NoSuchElementException.
+    *
+    * @param k       the k-selection value
+    * @return        the kth minimum value
+    * @throws        NoSuchElementException as per above
+    */
+   public T kmin(int k) {
+      Node<T>[] tops = snapshot();
+      long distinct = distinctOf(tops);
+      if (k < 1 || k > distinct) {
+         throw new NoSuchElementException();
+      }
+      return select(tops, k - 1);
+   }
+
+
+   /**
+    * Returns the kth maximum distinct value, as Selector.kmax would. If
+    * there is no kth maximum value, this method throws a
+    * NoSuchElementException.
+    *
+    * @param k       the k-selection value
+    * @return        the kth maximum value
+    * @throws        NoSuchElementException as per above
+    */
+   public T kmax(int k) {
+      Node<T>[] tops = snapshot();
+      long distinct = distinctOf(tops);
+      if (k < 1 || k > distinct) {
+         throw new NoSuchElementException();
+      }
+      return select(tops, distinct - k);
+   }
+
+
+   /**
+    * Returns a new Collection of the values in [low..high], including
+    * duplicates, in ascending order, as Selector.range would. Only the
+    * nodes in the range and on the paths to its ends are visited; the
+    * ascending runs found in each stripe are then merged by one sort. If
+    * no values are in the range, this method throws a
+    * NoSuchElementException.
+    *
+    * @param low     the lower bound of the range
+    * @param high    the upper bound of the range
+    * @return        a Collection of values between low and high
+    * @throws        NoSuchElementException as per above
+    */
+   public Collection<T> range(T low, T high) {
+      ArrayList<T> range = new ArrayList<T>();
+      for (int s = 0; s <= mask; s++) {
+         collect(roots.get(s), low, high, range);
+      }
+      if (range.isEmpty()) {
+         throw new NoSuchElementException();
+      }
+      if (mask > 0) {
+         range.sort(comp);
+      }
+      return range;
+   }
+
+
+   /**
+    * Returns the smallest value greater than or equal to key, as
+    * Selector.ceiling would. If there is no qualifying value, this method
+    * throws a NoSuchElementException.
+    *
+    * @param key     the reference value
+    * @return        the ceiling value of key
+    * @throws        NoSuchElementException as per above
+    */
+   public T ceiling(T key) {
+      Node<T> best = null;
+      for (int s = 0; s <= mask; s++) {
+         Node<T> n = roots.get(s);
+         while (n != null) {
+            if (comp.compare(n.value, key) >= 0) {
+               if (best == null || comp.compare(n.value, best.value) < 0) {
+                  best = n;
+               }
+               n = n.left;
+            }
+            else {
+               n = n.right;
+            }
+         }
+      }
+      if (best == null) {
+         throw new NoSuchElementException();
+      }
+      return best.value;
+   }
+
+
+   /**
+    * Returns the largest value less than or equal to key, as
+    * Selector.floor would. If there is no qualifying value, this method
+    * throws a NoSuchElementException.
+    *
+    * @param key     the reference value
+    * @return        the floor value of key
+    * @throws        NoSuchElementException as per above
+    */
+   public T floor(T key) {
+      Node<T> best = null;
+      for (int s = 0; s <= mask; s++) {
+         Node<T> n = roots.get(s);
+         while (n != null) {
+            if (comp.compare(n.value, key) <= 0) {
+               if (best == null || comp.compare(n.value, best.value) > 0) {
+                  best = n;
+               }
+               n = n.right;
+            }
+            else {
+               n = n.left;
+            }
+         }
+      }
+      if (best == null) {
+         throw new NoSuchElementException();
+      }
+      return best.value;
+   }
+
+
+   /**
+    * Returns the stripe that holds value and every value equal to it.
+    *
+    * @param value   the value
+    * @return        its stripe
+    */
+   private int stripeOf(T value) {
+      if (mask == 0) {
+         return 0;
+      }
+      int h = value.hashCode() * 0x9E3779B9;
+      return (h ^ (h >>> 16)) & mask;
+   }
+
+
+   /**
+    * Returns the root of every stripe, each read once.
+    *
+    * @return        the roots
+    */
+   @SuppressWarnings("unchecked")
+   private Node<T>[] snapshot() {
+      Node<T>[] tops = (Node<T>[]) new Node<?>[mask + 1];
+      for (int s = 0; s <= mask; s++) {
+         tops[s] = roots.get(s);
+      }
+      return tops;
+   }
+
+
+   /**
+    * Returns the number of distinct values in the treaps tops.
+    *
+    * @param tops    the roots of the stripes
+    * @return        their distinct count
+    */
+   private static long distinctOf(Node<?>[] tops) {
+      long distinct = 0;
+      for (Node<?> top : tops) {
+         distinct += sizeOf(top);
+      }
+      return distinct;
+   }
+
+
+   /**
+    * Returns the distinct value with exactly i smaller distinct values
+    * in the union of the treaps tops, which hold disjoint values.
+    *
+    * <p>Each stripe s keeps a window [lo[s], hi[s]) of distinct ranks
+    * still in play, and each round ranks one or two pivots in every
+    * stripe and keeps only the part of each window on the answer's side.
+    * Values are spread over the stripes by hash, so the stripe with the
+    * most values in play is a random sample of them: its values two
+    * standard deviations either side of the proportional rank usually
+    * bracket the answer, leaving O(P sqrt(m)) values in play out of m. A
+    * round that removes less than a quarter of the values in play is
+    * followed by one whose pivot is the median of the window medians,
+    * weighted by window size, which always removes at least a quarter.
+    * Once at most FINISH values per stripe are left they are gathered
+    * and sorted.
+    *
+    * @param tops    the roots of the stripes
+    * @param i       the 0-based distinct rank, less than distinctOf(tops)
+    * @return        the selected value
+    */
+   private T select(Node<T>[] tops, long i) {
+      if (tops.length == 1) {
+         return select(tops[0], (int) i);
+      }
+      int stripes = tops.length;
+      int[] lo = new int[stripes];
+      int[] hi = new int[stripes];
+      int[] lowRank = new int[stripes];
+      int[] highRank = new int[stripes];
+      long window = 0;
+      for (int s = 0; s < stripes; s++) {
+         hi[s] = sizeOf(tops[s]);
+         window += hi[s];
+      }
+      boolean sample = true;
+      while (window > (long) FINISH * stripes) {
+         int largest = 0;
+         for (int s = 1; s < stripes; s++) {
+            if (hi[s] - lo[s] > hi[largest] - lo[largest]) {
+               largest = s;
+            }
+         }
+         int width = hi[largest] - lo[largest];
+         if (width == window) {
+            return select(tops[largest], lo[largest] + (int) i);
+         }
+         T low;
+         T high;
+         if (sample) {
+            int at = (int) (i * width / window);
+            int gap = 2 * (int) Math.sqrt(Math.min(at, width - at)) + 1;
+            at += lo[largest];
+            low = select(tops[largest], Math.max(lo[largest], at - gap));
+            high = select(tops[largest],
+               Math.min(hi[largest] - 1, at + gap));
+         }
+         else {
+            low = weightedMedian(tops, lo, hi, window);
+            high = low;
+         }
+         long belowLow = 0;
+         long belowHigh = 0;
+         for (int s = 0; s < stripes; s++) {
+            lowRank[s] = rankOf(tops[s], low, lo[s], hi[s]);
+            highRank[s] = (high == low) ? lowRank[s]
+               : rankOf(tops[s], high, lo[s], hi[s]);
+            belowLow += lowRank[s] - lo[s];
+            belowHigh += highRank[s] - lo[s];
+         }
+         long left;
+         if (i < belowLow) {
+            System.arraycopy(lowRank, 0, hi, 0, stripes);
+            left = belowLow;
+         }
+         else if (i < belowHigh) {
+            System.arraycopy(lowRank, 0, lo, 0, stripes);
+            System.arraycopy(highRank, 0, hi, 0, stripes);
+            i -= belowLow;
+            left = belowHigh - belowLow;
+         }
+         else {
+            System.arraycopy(highRank, 0, lo, 0, stripes);
+            i -= belowHigh;
+            left = window - belowHigh;
+         }
+         sample = 4 * left <= 3 * window;
+         window = left;
+      }
+      ArrayList<T> rest = new ArrayList<T>((int) window);
+      for (int s = 0; s < stripes; s++) {
+         gather(tops[s], lo[s], hi[s], rest);
+      }
+      rest.sort(comp);
+      return rest.get((int) i);
+   }
+
+
+   /**
+    * Returns the median of the values at the middle ranks of the windows
+    * [lo[s], hi[s]), each weighted by the size of its window.
+    *
+    * @param tops    the roots of the stripes
+    * @param lo      the first rank in play of each stripe
+    * @param hi      one past the last rank in play of each stripe
+    * @param window  the number of ranks in play in all stripes
+    * @return        the weighted median
+    */
+   @SuppressWarnings("unchecked")
+   private T weightedMedian(Node<T>[] tops, int[] lo, int[] hi,
+                            long window) {
+      T[] medians = (T[]) new Object[tops.length];
+      int[] order = new int[tops.length];
+      int live = 0;
+      for (int s = 0; s < tops.length; s++) {
+         if (lo[s] < hi[s]) {
+            medians[s] = select(tops[s], (lo[s] + hi[s]) >>> 1);
+            int j = live++;
+            while (j > 0
+               && comp.compare(medians[order[j - 1]], medians[s]) > 0) {
+               order[j] = order[j - 1];
+               j--;
+            }
+            order[j] = s;
+         }
+      }
+      long weight = 0;
+      for (int j = 0; j < live - 1; j++) {
+         weight += hi[order[j]] - lo[order[j]];
+         if (2 * weight >= window) {
+            return medians[order[j]];
+         }
+      }
+      return medians[order[live - 1]];
+   }
+
+
+   /**
+    * Returns the number of distinct values in the subtree n less than
+    * value, limited to [from, to]: the end of the window [from, to) below
+    * value.
+    *
+    * @param n       the subtree
+    * @param value   the reference value
+    * @param from    the first rank in play
+    * @param to      one past the last rank in play
+    * @return        its rank within the window's bounds
+    */
+   private int rankOf(Node<T> n, T value, int from, int to) {
+      if (from == to) {
+         return from;
+      }
+      return Math.max(from, Math.min(to, rankOf(n, value)));
+   }
+
+
+   /**
+    * Returns the number of distinct values in the subtree n less than
+    * value.
+    *
+    * @param n       the subtree
+    * @param value   the reference value
+    * @return        its rank
+    */
+   private int rankOf(Node<T> n, T value) {
+      int rank = 0;
+      while (n != null) {
+         if (comp.compare(n.value, value) < 0) {
+            rank += sizeOf(n.left) + 1;
+            n = n.right;
+         }
+         else {
+            n = n.left;
+         }
+      }
+      return rank;
+   }
+
+
+   /**
+    * Adds to out, in order, the values of the subtree n whose distinct
+    * ranks in it are in [from, to).
+    *
+    * @param n       the subtree
+    * @param from    the first rank wanted
+    * @param to      one past the last rank wanted
+    * @param out     the list of values found so far
+    */
+   private static <T> void gather(Node<T> n, int from, int to,
+                                  ArrayList<T> out) {
+      if (n == null || from >= to) {
+         return;
+      }
+      int left = sizeOf(n.left);
+      if (from < left) {
+         gather(n.left, from, to, out);
+      }
+      if (from <= left && left < to) {
+         out.add(n.value);
+      }
+      if (to > left + 1) {
+         gather(n.right, from - left - 1, to - left - 1, out);
+      }
+   }
+
+
+   /**
+    * Returns the node of the subtree n holding a value equal to value,
+    * or null.
+    *
+    * @param n       the subtree
+    * @param value   the value to find
+    * @return        its node, or null
+    */
+   private Node<T> find(Node<T> n, T value) {
+      while (n != null) {
+         int c = comp.compare(value, n.value);
+         if (c == 0) {
+            return n;
+         }
+         n = (c < 0) ? n.left : n.right;
+      }
+      return null;
+   }
+
+
+   /**
+    * Returns the distinct value of the subtree n with exactly i smaller
+    * distinct values.
+    *
+    * @param n       the subtree
+    * @param i       the 0-based distinct rank
+    * @return        the selected value
+    */
+   private T select(Node<T> n, int i) {
+      while (true) {
+         int left = sizeOf(n.left);
+         if (i < left) {
+            n = n.left;
+         }
+         else if (i == left) {
+            return n.value;
+         }
+         else {
+            i -= left + 1;
+            n = n.right;
+         }
+      }
+   }
+
+
+   /**
+    * Adds the values of the subtree n in [low..high] to out in order.
+    *
+    * @param n       the subtree
+    * @param low     the lower bound of the range
+    * @param high    the upper bound of the range
+    * @param out     the list of values found so far
+    */
+   private void collect(Node<T> n, T low, T high, ArrayList<T> out) {
+      if (n == null) {
+         return;
+      }
+      boolean aboveLow = comp.compare(n.value, low) >= 0;
+      boolean belowHigh = comp.compare(n.value, high) <= 0;
+      if (aboveLow) {
+         collect(n.left, low, high, out);
+      }
+      if (aboveLow && belowHigh) {
+         for (int i = 0; i < n.count; i++) {
+            out.add(n.value);
+         }
+      }
+      if (belowHigh) {
+         collect(n.right, low, high, out);
+      }
+   }
+
+
+   /**
+    * Returns a copy of the subtree n with one more occurrence of value.
+    * Only the nodes on the path to value are copied.
+    *
+    * @param n       the subtree
+    * @param value   the value to add
+    * @return        the root of the new subtree
+    */
+   private Node<T> insert(Node<T> n, T value) {
+      if (n == null) {
+         return new Node<T>(value, ThreadLocalRandom.current().nextInt(), 1,
+            null, null);
+      }
+      int c = comp.compare(value, n.value);
+      if (c == 0) {
+         return n.with(n.count + 1, n.left, n.right);
+      }
+      if (c < 0) {
+         Node<T> l = insert(n.left, value);
+         if (l.priority > n.priority) {
+            return l.with(l.count, l.left, n.with(n.count, l.right, n.right));
+         }
+         return n.with(n.count, l, n.right);
+      }
+      Node<T> r = insert(n.right, value);
+      if (r.priority > n.priority) {
+         return r.with(r.count, n.with(n.count, n.left, r.left), r.right);
+      }
+      return n.with(n.count, n.left, r);
+   }
+
+
+   /**
+    * Returns a copy of the subtree n with one occurrence of value, which
+    * must be present, removed. Only the nodes on the path to value and
+    * along the spines joined in its place are copied.
+    *
+    * @param n       the subtree
+    * @param value   the value to remove
+    * @return        the root of the new subtree
+    */
+   private Node<T> delete(Node<T> n, T value) {
+      int c = comp.compare(value, n.value);
+      if (c == 0) {
+         if (n.count > 1) {
+            return n.with(n.count - 1, n.left, n.right);
+         }
+         return join(n.left, n.right);
+      }
+      if (c < 0) {
+         return n.with(n.count, delete(n.left, value), n.right);
+      }
+      return n.with(n.count, n.left, delete(n.right, value));
+   }
+
+
+   /**
+    * Joins two treaps where every value in a is less than every value
+    * in b, copying the nodes along the spines it follows.
+    *
+    * @param a       the lower treap
+    * @param b       the upper treap
+    * @return        the root of the joined treap
+    */
+   private Node<T> join(Node<T> a, Node<T> b) {
+      if (a == null) {
+         return b;
+      }
+      if (b == null) {
+         return a;
+      }
+      if (a.priority > b.priority) {
+         return a.with(a.count, a.left, join(a.right, b));
+      }
+      return b.with(b.count, join(a, b.left), b.right);
+   }
+
+
+   /**
+    * Returns the number of distinct values in the subtree n.
+    *
+    * @param n       the subtree
+    * @return        its distinct count
+    */
+   private static int sizeOf(Node<?> n) {
+      return (n == null) ? 0 : n.size;
+   }
+
+
+   /**
+    * Returns the number of values in the subtree n, counting duplicates.
+    *
+    * @param n       the subtree
+    * @return        its total count
+    */
+   private static long totalOf(Node<?> n) {
+      return (n == null) ? 0 : n.total;
+   }
+
+
+   /**
+    * An immutable treap node: one distinct value, its multiplicity, a
+    * random heap priority, the number of distinct values in its subtree
+    * and the number of values in it counting duplicates.
+    *
+    * @param <T> the type of the value
+    */
+   private static final class Node<T> {
+      private final T value;
+      private final int priority;
+      private final int count;
+      private final int size;
+      private final long total;
+      private final Node<T> left;
+      private final Node<T> right;
+
+      Node(T value, int priority, int count, Node<T> left, Node<T> right) {
+         this.value = value;
+         this.priority = priority;
+         this.count = count;
+         this.left = left;
+         this.right = right;
+         size = 1 + sizeOf(left) + sizeOf(right);
+         total = count + totalOf(left) + totalOf(right);
+      }
+
+      Node<T> with(int newCount, Node<T> newLeft, Node<T> newRight) {
+         return new Node<T>(value, priority, newCount, newLeft, newRight);
+      }
+   }
+
+}
@@ -0,0 +1,423 @@
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+/**
+ * Defines a mergeable KLL quantile sketch that answers approximate
+ * order-statistic queries in memory that does not grow with the number
+ * of values added.
+ *
+ * <p>Values are kept in a stack of compactors. A value at level h stands
+ * for 2^h of the values added. When a level fills up it is sorted and
+ * every other value, starting at a random offset, is promoted to the
+ * next level. The capacity of each level shrinks geometrically below
+ * the top, so about 3k values are retained in total. The estimated rank
+ * of any value is within about 3.3 / k of its true rank, as a fraction of
+ * size(), with high probability; see normalizedRankError.
+ *
+ * <p>Unlike Selector, ranks here count duplicate values, so kmin(k)
+ * approximates the kth value of the sorted collection rather than the
+ * kth distinct value. Sketches built on different parts of the data with
+ * the same Comparator can be combined with merge.
+ *
+ * @author  Ryan Litwin (rpl0010@auburn.edu)
+ * @version 10-18-26
+ * @param <T> the type of the sketched values
+ */
+public class QuantileSketch<T> {
+
+   /** default accuracy parameter. */
+   public static final int DEFAULT_K = 200;
+
+   /** ratio between the capacities of adjacent levels. */
+   private static final double SHRINK = 2.0 / 3.0;
+
+   /** the accuracy parameter k: the capacity of the top level. */
+   private final int top;
+
+   /** the total order on values. */
+   private final Comparator<T> comp;
+
+   /** levels.get(h) holds values of weight 2^h. */
+   private final List<List<T>> levels = new ArrayList<List<T>>();
+
+   /** the source of the compaction offsets. */
+   private final Random random = new Random();
+
+   /** number of values added, counting merged sketches. */
+   private long n;
+
+   /** number of values currently held across all levels. */
+   private int retained;
+
+   /** sum of the level capacities; retained is kept below this. */
+   private int maxRetained;
+
+   /** retained values in ascending order, or null if out of date. */
+   private List<T> sorted;
+
+   /** cumulative[i] is the total weight of sorted.get(0..i). */
+   private long[] cumulative;
+
+
+   /**
+    * Creates an empty sketch with the default accuracy.
+    *
+    * @param comp    the Comparator that defines the total order on T
+    * @throws        IllegalArgumentException if comp is null
+    */
+   public QuantileSketch(Comparator<T> comp) {
+      this(comp, DEFAULT_K);
+   }
+
+
+   /**
+    * Creates an empty sketch that retains about 3k values.
+    *
+    * @param comp    the Comparator that defines the total order on T
+    * @param k       the accuracy parameter, at least 8
+    * @throws        IllegalArgumentException if comp is null or k < 8
+    */
+   public QuantileSketch(Comparator<T> comp, int k) {
+      if (comp == null || k < 8) {
+         throw new IllegalArgumentException();
+      }
+      this.comp = comp;
+      this.top = k;
+      grow();
+   }
+
+
+   /**
+    * Adds value to this sketch.
+    *
+    * @param value   the value to add
+    * @throws        IllegalArgumentException if value is null
+    */
+   public void add(T value) {
+      if (value == null) {
+         throw new IllegalArgumentException();
+      }
+      levels.get(0).add(value);
+      n++;
+      retained++;
+      sorted = null;
+      while (retained >= maxRetained) {
+         compress();
+      }
+   }
+
+
+   /**
+    * Adds every value in coll to this sketch.
+    *
+    * @param coll    the values to add
+    * @throws        IllegalArgumentException if coll is null or holds null
+    */
+   public void addAll(Collection<T> coll) {
+      if (coll == null) {
+         throw new IllegalArgumentException();
+      }
+      for (T value : coll) {
+         add(value);
+      }
+   }
+
+
+   /**
+    * Folds the values summarized by that sketch into this one, as if
+    * they had been added here. The two sketches must order values the
+    * same way. That sketch is not changed.
+    *
+    * @param that    the sketch to merge into this one
+    * @throws        IllegalArgumentException if that is null
+    */
+   public void merge(QuantileSketch<T> that) {
+      if (that == null) {
+         throw new IllegalArgumentException();
+      }
+      List<List<T>> other = new ArrayList<List<T>>();
+      for (List<T> level : that.levels) {
+         other.add(new ArrayList<T>(level));
+      }
+      while (levels.size() < other.size()) {
+         grow();
+      }
+      for (int h = 0; h < other.size(); h++) {
+         levels.get(h).addAll(other.get(h));
+         retained += other.get(h).size();
+      }
+      n += that.n;
+      sorted = null;
+      while (retained >= maxRetained) {
+         compress();
+      }
+   }
+
+
+   /**
+    * Returns the number of values summarized by this sketch.
+    *
+    * @return        the number of values added, including merged ones
+    */
+   public long size() {
+      return n;
+   }
+
+
+   /**
+    * Returns the expected bound on the rank error of this sketch as a
+    * fraction of size(). For example, with the default k, kmin(r)
+    * returns a value whose true rank is within about 0.017 * size() of r.
+    *
+    * @return        the normalized rank error
+    */
+   public double normalizedRankError() {
+      return 3.3 / top;
+   }
+
+
+   /**
+    * Returns the estimated number of added values that are less than or
+    * equal to value.
+    *
+    * @param value   the reference value
+    * @return        the estimated rank of value
+    * @throws        IllegalArgumentException if value is null
+    */
+   public long rank(T value) {
+      if (value == null) {
+         throw new IllegalArgumentException();
+      }
+      prepare();
+      int i = upperBound(value);
+      return (i == 0) ? 0 : cumulative[i - 1];
+   }
+
+
+   /**
+    * Returns an approximate kth minimum: a retained value whose
+    * estimated rank is the first to reach k. Duplicates are counted.
+    * If this sketch is empty or k is not in [1..size()], this method
+    * throws a NoSuchElementException.
+    *
+    * @param k       the rank to select
+    * @return        the approximate kth minimum
+    * @throws        NoSuchElementException as per above
+    */
+   public T kmin(long k) {
+      if (n == 0 || k < 1 || k > n) {
+         throw new NoSuchElementException();
+      }
+      prepare();
+      int lo = 0;
+      int hi = cumulative.length - 1;
+      while (lo < hi) {
+         int mid = (lo + hi) >>> 1;
+         if (cumulative[mid] < k) {
+            lo = mid + 1;
+         }
+         else {
+            hi = mid;
+         }
+      }
+      return sorted.get(lo);
+   }
+
+
+   /**
+    * Returns an approximate kth maximum, that is, kmin(size() - k + 1).
+    * If this sketch is empty or k is not in [1..size()], this method
+    * throws a NoSuchElementException.
+    *
+    * @param k       the rank to select, counting down from the largest
+    * @return        the approximate kth maximum
+    * @throws        NoSuchElementException as per above
+    */
+   public T kmax(long k) {
+      if (n == 0 || k < 1 || k > n) {
+         throw new NoSuchElementException();
+      }
+      return kmin(n - k + 1);
+   }
+
+
+   /**
+    * Returns the smallest retained value that is greater than or equal
+    * to key. Its rank is within the rank error of the rank of the exact
+    * ceiling. If no retained value qualifies, this method throws a
+    * NoSuchElementException.
+    *
+    * @param key     the reference value
+    * @return        the approximate ceiling of key
+    * @throws        IllegalArgumentException if key is null
+    * @throws        NoSuchElementException as per above
+    */
+   public T ceiling(T key) {
+      if (key == null) {
+         throw new IllegalArgumentException();
+      }
+      prepare();
+      int lo = 0;
+      int hi = sorted.size();
+      while (lo < hi) {
+         int mid = (lo + hi) >>> 1;
+         if (comp.compare(sorted.get(mid), key) < 0) {
+            lo = mid + 1;
+         }
+         else {
+            hi = mid;
+         }
+      }
+      if (lo == sorted.size()) {
+         throw new NoSuchElementException();
+      }
+      return sorted.get(lo);
+   }
+
+
+   /**
+    * Returns the largest retained value that is less than or equal to
+    * key. Its rank is within the rank error of the rank of the exact
+    * floor. If no retained value qualifies, this method throws a
+    * NoSuchElementException.
+    *
+    * @param key     the reference value
+    * @return        the approximate floor of key
+    * @throws        IllegalArgumentException if key is null
+    * @throws        NoSuchElementException as per above
+    */
+   public T floor(T key) {
+      if (key == null) {
+         throw new IllegalArgumentException();
+      }
+      prepare();
+      int i = upperBound(key);
+      if (i == 0) {
+         throw new NoSuchElementException();
+      }
+      return sorted.get(i - 1);
+   }
+
+
+   /**
+    * Returns the number of sorted values less than or equal to value.
+    *
+    * @param value   the reference value
+    * @return        the index just past the last value <= value
+    */
+   private int upperBound(T value) {
+      int lo = 0;
+      int hi = sorted.size();
+      while (lo < hi) {
+         int mid = (lo + hi) >>> 1;
+         if (comp.compare(sorted.get(mid), value) <= 0) {
+            lo = mid + 1;
+         }
+         else {
+            hi = mid;
+         }
+      }
+      return lo;
+   }
+
+
+   /**
+    * Rebuilds the sorted view of the retained values and their
+    * cumulative weights if anything has changed since the last query.
+    */
+   private void prepare() {
+      if (sorted != null) {
+         return;
+      }
+      List<Weighted<T>> items = new ArrayList<Weighted<T>>(retained);
+      for (int h = 0; h < levels.size(); h++) {
+         for (T value : levels.get(h)) {
+            items.add(new Weighted<T>(value, 1L << h));
+         }
+      }
+      items.sort((x, y) -> comp.compare(x.value, y.value));
+      sorted = new ArrayList<T>(items.size());
+      cumulative = new long[items.size()];
+      long total = 0;
+      for (int i = 0; i < items.size(); i++) {
+         sorted.add(items.get(i).value);
+         total += items.get(i).weight;
+         cumulative[i] = total;
+      }
+   }
+
+
+   /**
+    * Returns the capacity of level h: top at the top level, shrinking by
+    * SHRINK per level below it, plus one so it is never less than 2.
+    *
+    * @param h       the level
+    * @return        the capacity of level h
+    */
+   private int capacity(int h) {
+      int depth = levels.size() - h - 1;
+      return (int) Math.ceil(top * Math.pow(SHRINK, depth)) + 1;
+   }
+
+
+   /**
+    * Adds an empty top level and recomputes maxRetained.
+    */
+   private void grow() {
+      levels.add(new ArrayList<T>());
+      maxRetained = 0;
+      for (int h = 0; h < levels.size(); h++) {
+         maxRetained += capacity(h);
+      }
+   }
+
+
+   /**
+    * Compacts the lowest level that has reached its capacity.
+    */
+   private void compress() {
+      for (int h = 0; h < levels.size(); h++) {
+         List<T> level = levels.get(h);
+         if (level.size() >= capacity(h)) {
+            if (h + 1 == levels.size()) {
+               grow();
+            }
+            List<T> next = levels.get(h + 1);
+            level.sort(comp);
+            int pairs = level.size() / 2;
+            int offset = random.nextBoolean() ? 1 : 0;
+            for (int i = 0; i < pairs; i++) {
+               next.add(level.get(2 * i + offset));
+            }
+            T odd = (level.size() % 2 == 1) ? level.get(level.size() - 1) : null;
+            level.clear();
+            if (odd != null) {
+               level.add(odd);
+            }
+            retained -= pairs;
+            return;
+         }
+      }
+   }
+
+
+   /**
+    * Pairs a retained value with the number of added values it stands for.
+    *
+    * @param <T> the type of the value
+    */
+   private static final class Weighted<T> {
+      private final T value;
+      private final long weight;
+
+      Weighted(T value, long weight) {
+         this.value = value;
+         this.weight = weight;
+      }
+   }
+
+}
@@ -2,8 +2,11 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.Iterator;
-//import java.util.List;
+import java.util.NavigableSet;
 import java.util.NoSuchElementException;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.stream.Stream;
 
 /**
  * Defines a library of selection methods on Collections.
@@ -44,6 +47,9 @@ public final class Selector {
       if (coll.isEmpty()) {
          throw new NoSuchElementException();
       }
+      if (coll instanceof SortedSet && sortedBy((SortedSet<T>) coll, comp)) {
+         return ((SortedSet<T>) coll).first();
+      }
       else {
          Iterator<T> it = coll.iterator();
          T min = it.next();
@@ -80,6 +86,9 @@ public final class Selector {
       if (coll.isEmpty()) {
          throw new NoSuchElementException();
       }
+      if (coll instanceof SortedSet && sortedBy((SortedSet<T>) coll, comp)) {
+         return ((SortedSet<T>) coll).last();
+      }
       else {
          Iterator<T> it = coll.iterator();
          T max = it.next();
@@ -118,28 +127,34 @@ public final class Selector {
       if (coll.isEmpty() || k < 1 || k > coll.size()) {
          throw new NoSuchElementException();
       }
-      else {
-         ArrayList<T> list = new ArrayList<T>(coll);
-         java.util.Collections.sort(list, comp);
-         if (k == 1) {
-            return list.get(0);
+      if (coll instanceof SortedSet && sortedBy((SortedSet<T>) coll, comp)) {
+         Iterator<T> it = ((SortedSet<T>) coll).iterator();
+         T kmin = it.next();
+         for (int i = 1; i < k; i++) {
+            kmin = it.next();
          }
-         T count2 = list.get(0);
-         int count3 = 1;
-         T kmin = null;
-         for (int i = 1; i < list.size(); i++) {
-            if (!list.get(i).equals(count2)) {
-               count3++;
-               if (k == count3) {
-                  kmin = list.get(i);
-               }
+         return kmin;
+      }
+      else if (k <= coll.size() / HEAP_RATIO) {
+         TreeSet<T> smallest = new TreeSet<T>(comp);
+         for (T value : coll) {
+            if (smallest.size() < k) {
+               smallest.add(value);
+            }
+            else if (comp.compare(value, smallest.last()) < 0
+               && smallest.add(value)) {
+               smallest.pollLast();
             }
-            count2 = list.get(i);
          }
-         if (k > count3) {
+         if (smallest.size() < k) {
             throw new NoSuchElementException();
          }
-         return kmin;
+         return smallest.last();
+      }
+      else {
+         ArrayList<T> list = new ArrayList<T>(coll);
+         java.util.Collections.sort(list, comp);
+         return kthDistinct(list.iterator(), k, comp);
       }
    }
 
@@ -166,28 +181,44 @@ public final class Selector {
       if (coll.isEmpty() || k < 1 || k > coll.size()) {
          throw new NoSuchElementException();
       }
-      else {
-         ArrayList<T> list = new ArrayList<T>(coll);
-         java.util.Collections.sort(list, comp);
-         if (k == 1) {
-            return list.get(list.size() - 1);
+      if (coll instanceof NavigableSet
+         && sortedBy((NavigableSet<T>) coll, comp)) {
+         Iterator<T> it = ((NavigableSet<T>) coll).descendingIterator();
+         T kmax = it.next();
+         for (int i = 1; i < k; i++) {
+            kmax = it.next();
          }
-         int count = 1;
-         T count2 = list.get(list.size() - 1);
-         T kmax = null;
-         for (int i = list.size() - 2; i >= 0; i--) {
-            if (!list.get(i).equals(count2)) {
-               count++;
-               if (k == count) {
-                  kmax = list.get(i);
-               }
+         return kmax;
+      }
+      else if (coll instanceof SortedSet
+         && sortedBy((SortedSet<T>) coll, comp)) {
+         Iterator<T> it = ((SortedSet<T>) coll).iterator();
+         T kmax = it.next();
+         for (int i = coll.size() - k; i > 0; i--) {
+            kmax = it.next();
+         }
+         return kmax;
+      }
+      else if (k <= coll.size() / HEAP_RATIO) {
+         TreeSet<T> largest = new TreeSet<T>(comp);
+         for (T value : coll) {
+            if (largest.size() < k) {
+               largest.add(value);
+            }
+            else if (comp.compare(value, largest.first()) > 0
+               && largest.add(value)) {
+               largest.pollFirst();
             }
-            count2 = list.get(i);
          }
-         if (k > count) {
+         if (largest.size() < k) {
             throw new NoSuchElementException();
          }
-         return kmax;
+         return largest.first();
+      }
+      else {
+         ArrayList<T> list = new ArrayList<T>(coll);
+         java.util.Collections.sort(list, comp.reversed());
+         return kthDistinct(list.iterator(), k, comp);
       }
    }
    
@@ -221,6 +252,27 @@ public final class Selector {
       if (coll.isEmpty()) {
          throw new NoSuchElementException();
       }
+      if (coll instanceof SortedSet && sortedBy((SortedSet<T>) coll, comp)) {
+         if (comp.compare(low, high) > 0) {
+            throw new NoSuchElementException();
+         }
+         ArrayList<T> range = new ArrayList<T>();
+         if (coll instanceof NavigableSet) {
+            range.addAll(((NavigableSet<T>) coll).subSet(low, true, high, true));
+         }
+         else {
+            for (T value : ((SortedSet<T>) coll).tailSet(low)) {
+               if (comp.compare(value, high) > 0) {
+                  break;
+               }
+               range.add(value);
+            }
+         }
+         if (range.isEmpty()) {
+            throw new NoSuchElementException();
+         }
+         return range;
+      }
       else {
          ArrayList<T> range = new ArrayList<T>();
          Iterator<T> it = coll.iterator();
@@ -240,6 +292,65 @@ public final class Selector {
    }
       
 
+   /**
+    * Returns a lazy Stream of the values in the Collection coll that are
+    * greater than or equal to low and less than or equal to high, as
+    * defined by the Comparator comp. Values are tested only as the
+    * stream is consumed, so nothing is buffered, short-circuiting
+    * operations such as findFirst or limit stop the scan early, and
+    * calling parallel() splits the scan along coll's Spliterator. If coll
+    * is a NavigableSet ordered by comp, the stream is over a subSet view
+    * and never visits values outside the range. Unlike range, an empty
+    * result is an empty stream rather than a NoSuchElementException. If
+    * either coll or comp is null, this method throws an
+    * IllegalArgumentException. Changes to coll while the stream is in use
+    * have the same effect as on coll.stream().
+    *
+    * @param coll    the Collection from which the range values are selected
+    * @param low     the lower bound of the range
+    * @param high    the upper bound of the range
+    * @param comp    the Comparator that defines the total order on T
+    * @return        a Stream of values between low and high
+    * @throws        IllegalArgumentException as per above
+    * @param <T> of type T as the array list
+    */
+   public static <T> Stream<T> rangeStream(Collection<T> coll, T low, T high,
+                                           Comparator<T> comp) {
+      if (coll == null || comp == null) {
+         throw new IllegalArgumentException();
+      }
+      if (coll instanceof NavigableSet
+         && sortedBy((NavigableSet<T>) coll, comp)) {
+         if (coll.isEmpty() || comp.compare(low, high) > 0) {
+            return Stream.empty();
+         }
+         return ((NavigableSet<T>) coll).subSet(low, true, high, true).stream();
+      }
+      return coll.stream().filter(value -> comp.compare(value, low) >= 0
+         && comp.compare(value, high) <= 0);
+   }
+
+
+   /**
+    * Returns a lazy Iterator over the values in the Collection coll that
+    * are in [low..high] as defined by the Comparator comp; each call to
+    * next scans only as far as the next qualifying value. See
+    * rangeStream. If either coll or comp is null, this method throws an
+    * IllegalArgumentException.
+    *
+    * @param coll    the Collection from which the range values are selected
+    * @param low     the lower bound of the range
+    * @param high    the upper bound of the range
+    * @param comp    the Comparator that defines the total order on T
+    * @return        an Iterator over values between low and high
+    * @throws        IllegalArgumentException as per above
+    * @param <T> of type T as the array list
+    */
+   public static <T> Iterator<T> rangeIterator(Collection<T> coll, T low,
+                                               T high, Comparator<T> comp) {
+      return rangeStream(coll, low, high, comp).iterator();
+   }
+
 
    /**
     * Returns the smallest value in the Collection coll that is greater than
@@ -264,28 +375,27 @@ public final class Selector {
       if (coll.isEmpty()) {
          throw new NoSuchElementException();
       }
-      else {
-         Iterator<T> it = coll.iterator();
-         ArrayList<T> list = new ArrayList<T>();
-         Iterator<T> its;
-         while (it.hasNext()) {
-            T count2 = it.next();
-            if (comp.compare(count2, key) >= 0) {
-               list.add(count2);
-            }
+      if (coll instanceof SortedSet && sortedBy((SortedSet<T>) coll, comp)) {
+         T ceiling = sortedCeiling((SortedSet<T>) coll, key);
+         if (ceiling == null) {
+            throw new NoSuchElementException();
          }
-         its = list.iterator();
-         T i = its.next();
-         while (its.hasNext()) {
-            T ia = its.next();
-            if (comp.compare(ia, i) < 0) {
-               i = ia;
+         return ceiling;
+      }
+      else {
+         boolean found = false;
+         T ceiling = null;
+         for (T value : coll) {
+            if (comp.compare(value, key) >= 0
+               && (!found || comp.compare(value, ceiling) < 0)) {
+               ceiling = value;
+               found = true;
             }
          }
-         if (comp.compare(i, key) < 0) {
+         if (!found) {
             throw new NoSuchElementException();
          }
-         return i;
+         return ceiling;
       }
    }
 
@@ -313,30 +423,381 @@ public final class Selector {
       if (coll.isEmpty()) {
          throw new NoSuchElementException();
       }
-      else {
-         Iterator<T> it = coll.iterator();
-         ArrayList<T> list = new ArrayList<T>();
-         Iterator<T> its;
-         while (it.hasNext()) {
-            T count2 = it.next();
-            if (comp.compare(count2, key) <= 0) {
-               list.add(count2);
-            }
+      if (coll instanceof SortedSet && sortedBy((SortedSet<T>) coll, comp)) {
+         T floor = sortedFloor((SortedSet<T>) coll, key, comp);
+         if (floor == null) {
+            throw new NoSuchElementException();
          }
-         its = list.iterator();
-         T ia = its.next();
-         while (its.hasNext()) {
-            T i = its.next();
-            if (comp.compare(i, ia) > 0) {
-               ia = i;
+         return floor;
+      }
+      else {
+         boolean found = false;
+         T floor = null;
+         for (T value : coll) {
+            if (comp.compare(value, key) <= 0
+               && (!found || comp.compare(value, floor) > 0)) {
+               floor = value;
+               found = true;
             }
          }
-         if (comp.compare(ia, key) > 0) {
+         if (!found) {
             throw new NoSuchElementException();
          }
-         return ia;
+         return floor;
       }
-      
+   }
+
+   /**
+    * Returns the minimum value in the Collection coll by natural ordering.
+    * This behaves as min(coll, Comparator.naturalOrder()) but calls
+    * compareTo directly, so the comparison can be inlined in the loop.
+    *
+    * @param coll    the Collection from which the minimum is selected
+    * @return        the minimum value in coll
+    * @throws        IllegalArgumentException if coll is null
+    * @throws        NoSuchElementException if coll is empty
+    * @param <T> of type T as the array list
+    */
+   public static <T extends Comparable<? super T>> T min(Collection<T> coll) {
+      if (coll == null) {
+         throw new IllegalArgumentException();
+      }
+      if (coll.isEmpty() || coll instanceof SortedSet) {
+         return min(coll, Comparator.<T>naturalOrder());
+      }
+      Iterator<T> it = coll.iterator();
+      T min = it.next();
+      while (it.hasNext()) {
+         T value = it.next();
+         if (value.compareTo(min) < 0) {
+            min = value;
+         }
+      }
+      return min;
+   }
+
+
+   /**
+    * Returns the maximum value in the Collection coll by natural ordering.
+    * This behaves as max(coll, Comparator.naturalOrder()) but calls
+    * compareTo directly.
+    *
+    * @param coll    the Collection from which the maximum is selected
+    * @return        the maximum value in coll
+    * @throws        IllegalArgumentException if coll is null
+    * @throws        NoSuchElementException if coll is empty
+    * @param <T> of type T as the array list
+    */
+   public static <T extends Comparable<? super T>> T max(Collection<T> coll) {
+      if (coll == null) {
+         throw new IllegalArgumentException();
+      }
+      if (coll.isEmpty() || coll instanceof SortedSet) {
+         return max(coll, Comparator.<T>naturalOrder());
+      }
+      Iterator<T> it = coll.iterator();
+      T max = it.next();
+      while (it.hasNext()) {
+         T value = it.next();
+         if (value.compareTo(max) > 0) {
+            max = value;
+         }
+      }
+      return max;
+   }
+
+
+   /**
+    * Returns the kth minimum value in the Collection coll by natural
+    * ordering; the same as kmin(coll, k, Comparator.naturalOrder()).
+    *
+    * @param coll    the Collection from which the kth minimum is selected
+    * @param k       the k-selection value
+    * @return        the kth minimum value in coll
+    * @throws        IllegalArgumentException if coll is null
+    * @throws        NoSuchElementException if there is no kth minimum
+    * @param <T> of type T as the array list
+    */
+   public static <T extends Comparable<? super T>> T kmin(Collection<T> coll,
+                                                          int k) {
+      return kmin(coll, k, Comparator.<T>naturalOrder());
+   }
+
+
+   /**
+    * Returns the kth maximum value in the Collection coll by natural
+    * ordering; the same as kmax(coll, k, Comparator.naturalOrder()).
+    *
+    * @param coll    the Collection from which the kth maximum is selected
+    * @param k       the k-selection value
+    * @return        the kth maximum value in coll
+    * @throws        IllegalArgumentException if coll is null
+    * @throws        NoSuchElementException if there is no kth maximum
+    * @param <T> of type T as the array list
+    */
+   public static <T extends Comparable<? super T>> T kmax(Collection<T> coll,
+                                                          int k) {
+      return kmax(coll, k, Comparator.<T>naturalOrder());
+   }
+
+
+   /**
+    * Returns a new Collection of the values in coll in [low..high] by
+    * natural ordering. This behaves as range(coll, low, high,
+    * Comparator.naturalOrder()) but calls compareTo directly.
+    *
+    * @param coll    the Collection from which the range values are selected
+    * @param low     the lower bound of the range
+    * @param high    the upper bound of the range
+    * @return        a Collection of values between low and high
+    * @throws        IllegalArgumentException if coll is null
+    * @throws        NoSuchElementException if no values are in range
+    * @param <T> of type T as the array list
+    */
+   public static <T extends Comparable<? super T>> Collection<T> range(
+         Collection<T> coll, T low, T high) {
+      if (coll == null) {
+         throw new IllegalArgumentException();
+      }
+      if (coll.isEmpty() || coll instanceof SortedSet) {
+         return range(coll, low, high, Comparator.<T>naturalOrder());
+      }
+      ArrayList<T> range = new ArrayList<T>();
+      for (T value : coll) {
+         if (value.compareTo(low) >= 0 && value.compareTo(high) <= 0) {
+            range.add(value);
+         }
+      }
+      if (range.isEmpty()) {
+         throw new NoSuchElementException();
+      }
+      return range;
+   }
+
+
+   /**
+    * Returns the smallest value in coll that is greater than or equal to
+    * key by natural ordering. This behaves as ceiling(coll, key,
+    * Comparator.naturalOrder()) but calls compareTo directly.
+    *
+    * @param coll    the Collection from which the ceiling value is selected
+    * @param key     the reference value
+    * @return        the ceiling value of key in coll
+    * @throws        IllegalArgumentException if coll is null
+    * @throws        NoSuchElementException if there is no qualifying value
+    * @param <T> of type T as the array list
+    */
+   public static <T extends Comparable<? super T>> T ceiling(
+         Collection<T> coll, T key) {
+      if (coll == null) {
+         throw new IllegalArgumentException();
+      }
+      if (coll.isEmpty() || coll instanceof SortedSet) {
+         return ceiling(coll, key, Comparator.<T>naturalOrder());
+      }
+      T ceiling = null;
+      for (T value : coll) {
+         if (value.compareTo(key) >= 0
+            && (ceiling == null || value.compareTo(ceiling) < 0)) {
+            ceiling = value;
+         }
+      }
+      if (ceiling == null) {
+         throw new NoSuchElementException();
+      }
+      return ceiling;
+   }
+
+
+   /**
+    * Returns the largest value in coll that is less than or equal to key
+    * by natural ordering. This behaves as floor(coll, key,
+    * Comparator.naturalOrder()) but calls compareTo directly.
+    *
+    * @param coll    the Collection from which the floor value is selected
+    * @param key     the reference value
+    * @return        the floor value of key in coll
+    * @throws        IllegalArgumentException if coll is null
+    * @throws        NoSuchElementException if there is no qualifying value
+    * @param <T> of type T as the array list
+    */
+   public static <T extends Comparable<? super T>> T floor(
+         Collection<T> coll, T key) {
+      if (coll == null) {
+         throw new IllegalArgumentException();
+      }
+      if (coll.isEmpty() || coll instanceof SortedSet) {
+         return floor(coll, key, Comparator.<T>naturalOrder());
+      }
+      T floor = null;
+      for (T value : coll) {
+         if (value.compareTo(key) <= 0
+            && (floor == null || value.compareTo(floor) > 0)) {
+            floor = value;
+         }
+      }
+      if (floor == null) {
+         throw new NoSuchElementException();
+      }
+      return floor;
+   }
+
+
+   /**
+    * Computes every statistic named by spec over the Collection coll, as
+    * defined by the Comparator comp, in a single traversal of coll. The
+    * returned Summary always holds the min and max, plus the requested
+    * smallest and largest distinct values, range counts, floors, and
+    * ceilings, each with the same meaning as the matching method here.
+    * If coll, comp, or spec is null, this method throws an
+    * IllegalArgumentException. If coll is empty, this method throws a
+    * NoSuchElementException. This method will not change coll in any
+    * way.
+    *
+    * @param coll    the Collection to summarize
+    * @param comp    the Comparator that defines the total order on T
+    * @param spec    the statistics to compute
+    * @return        the requested statistics of coll
+    * @throws        IllegalArgumentException as per above
+    * @throws        NoSuchElementException as per above
+    * @param <T> of type T as the array list
+    */
+   public static <T> Summary<T> summarize(Collection<T> coll,
+                                          Comparator<T> comp,
+                                          Summary.Spec<T> spec) {
+      if (coll == null || comp == null || spec == null) {
+         throw new IllegalArgumentException();
+      }
+      if (coll.isEmpty()) {
+         throw new NoSuchElementException();
+      }
+      return new Summary<T>(coll, comp, spec);
+   }
+
+
+   /**
+    * Returns a QuantileSketch of the values in the Collection coll as
+    * ordered by the Comparator comp. The sketch answers approximate
+    * kmin, kmax, floor, and ceiling queries in constant memory, can be
+    * fed more values later, and can be merged with sketches of other
+    * collections. For Comparable types, pass Comparator.naturalOrder().
+    * If either coll or comp is null, this method throws an
+    * IllegalArgumentException. This method will not change coll in any
+    * way.
+    *
+    * @param coll    the Collection to summarize
+    * @param comp    the Comparator that defines the total order on T
+    * @return        a sketch of the values in coll
+    * @throws        IllegalArgumentException as per above
+    * @param <T> of type T as the array list
+    */
+   public static <T> QuantileSketch<T> sketch(Collection<T> coll,
+                                              Comparator<T> comp) {
+      if (coll == null || comp == null) {
+         throw new IllegalArgumentException();
+      }
+      QuantileSketch<T> sketch = new QuantileSketch<T>(comp);
+      sketch.addAll(coll);
+      return sketch;
+   }
+
+   /**
+    * kmin and kmax keep a bounded TreeSet of the k best distinct values,
+    * which costs O(n log k) time and O(k) space, whenever k is at most
+    * coll.size() / HEAP_RATIO. Larger k sort a copy of coll instead.
+    */
+   private static final int HEAP_RATIO = 8;
+
+
+   /**
+    * Returns the kth distinct value, as defined by comp, produced by the
+    * iterator it over values in sorted order.
+    *
+    * @param it      an iterator over the values in sorted order
+    * @param k       the k-selection value
+    * @param comp    the Comparator that defines equality on T
+    * @return        the kth distinct value
+    * @throws        NoSuchElementException if there are fewer than k
+    * @param <T> of type T as the array list
+    */
+   private static <T> T kthDistinct(Iterator<T> it, int k,
+                                    Comparator<T> comp) {
+      T current = it.next();
+      int count = 1;
+      while (count < k && it.hasNext()) {
+         T next = it.next();
+         if (comp.compare(next, current) != 0) {
+            count++;
+         }
+         current = next;
+      }
+      if (count < k) {
+         throw new NoSuchElementException();
+      }
+      return current;
+   }
+
+
+   /**
+    * Returns true if the elements of set are ordered by comp, so that
+    * its own ordered lookups give the same answers a scan under comp
+    * would. This is the case when set uses comp itself, or an equal
+    * Comparator, or when set uses natural ordering and comp is
+    * Comparator.naturalOrder().
+    *
+    * @param set     the sorted set
+    * @param comp    the Comparator that defines the total order on T
+    * @return        true if set is sorted by comp
+    * @param <T> of type T as the array list
+    */
+   private static <T> boolean sortedBy(SortedSet<T> set, Comparator<T> comp) {
+      Comparator<? super T> order = set.comparator();
+      if (order == null) {
+         return comp.equals(Comparator.naturalOrder());
+      }
+      return order.equals(comp);
+   }
+
+
+   /**
+    * Returns the least element of set that is greater than or equal to
+    * key, or null if there is none, using the set's own ordered views.
+    *
+    * @param set     a set sorted by the caller's Comparator
+    * @param key     the reference value
+    * @return        the ceiling of key in set, or null
+    * @param <T> of type T as the array list
+    */
+   private static <T> T sortedCeiling(SortedSet<T> set, T key) {
+      if (set instanceof NavigableSet) {
+         return ((NavigableSet<T>) set).ceiling(key);
+      }
+      SortedSet<T> tail = set.tailSet(key);
+      return tail.isEmpty() ? null : tail.first();
+   }
+
+
+   /**
+    * Returns the greatest element of set that is less than or equal to
+    * key, or null if there is none, using the set's own ordered views.
+    *
+    * @param set     a set sorted by comp
+    * @param key     the reference value
+    * @param comp    the Comparator that defines the total order on T
+    * @return        the floor of key in set, or null
+    * @param <T> of type T as the array list
+    */
+   private static <T> T sortedFloor(SortedSet<T> set, T key,
+                                    Comparator<T> comp) {
+      if (set instanceof NavigableSet) {
+         return ((NavigableSet<T>) set).floor(key);
+      }
+      SortedSet<T> tail = set.tailSet(key);
+      if (!tail.isEmpty() && comp.compare(tail.first(), key) == 0) {
+         return tail.first();
+      }
+      SortedSet<T> head = set.headSet(key);
+      return head.isEmpty() ? null : head.last();
    }
 
 }
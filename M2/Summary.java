@@ -0,0 +1,306 @@
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.TreeSet;
+
+/**
+ * Holds several order statistics of one Collection, all computed in a
+ * single traversal by Selector.summarize. The statistics to compute are
+ * named by a Spec; min and max are always computed.
+ *
+ * @author  Ryan Litwin (rpl0010@auburn.edu)
+ * @version 10-18-26
+ * @param <T> the type of the summarized values
+ */
+public final class Summary<T> {
+
+   /** the minimum and maximum values. */
+   private final T min;
+   private final T max;
+
+   /** the smallest distinct values, ascending. */
+   private final List<T> smallest;
+
+   /** the largest distinct values, descending. */
+   private final List<T> largest;
+
+   /** rangeCounts[i] is the number of values in the ith range. */
+   private final int[] rangeCounts;
+
+   /** floors[i] is the floor of the ith floor key, if hasFloor[i]. */
+   private final List<T> floors;
+   private final boolean[] hasFloor;
+
+   /** ceilings[i] is the ceiling of the ith ceiling key, if hasCeiling[i]. */
+   private final List<T> ceilings;
+   private final boolean[] hasCeiling;
+
+
+   /**
+    * Computes the statistics named by spec over coll in one traversal.
+    * Only Selector.summarize calls this, after checking its arguments.
+    *
+    * @param coll    a non-empty Collection
+    * @param comp    the Comparator that defines the total order on T
+    * @param spec    the statistics to compute
+    */
+   Summary(Collection<T> coll, Comparator<T> comp, Spec<T> spec) {
+      int ranges = spec.lows.size();
+      int floorKeys = spec.floorKeys.size();
+      int ceilingKeys = spec.ceilingKeys.size();
+      int lowCount = Math.min(spec.smallest, coll.size());
+      int highCount = Math.min(spec.largest, coll.size());
+      TreeSet<T> low = new TreeSet<T>(comp);
+      TreeSet<T> high = new TreeSet<T>(comp);
+      rangeCounts = new int[ranges];
+      floors = new ArrayList<T>(floorKeys);
+      hasFloor = new boolean[floorKeys];
+      ceilings = new ArrayList<T>(ceilingKeys);
+      hasCeiling = new boolean[ceilingKeys];
+      for (int i = 0; i < floorKeys; i++) {
+         floors.add(null);
+      }
+      for (int i = 0; i < ceilingKeys; i++) {
+         ceilings.add(null);
+      }
+
+      T lo = null;
+      T hi = null;
+      boolean first = true;
+      for (T value : coll) {
+         if (first || comp.compare(value, lo) < 0) {
+            lo = value;
+         }
+         if (first || comp.compare(value, hi) > 0) {
+            hi = value;
+         }
+         first = false;
+         if (low.size() < lowCount) {
+            low.add(value);
+         }
+         else if (lowCount > 0 && comp.compare(value, low.last()) < 0
+            && low.add(value)) {
+            low.pollLast();
+         }
+         if (high.size() < highCount) {
+            high.add(value);
+         }
+         else if (highCount > 0 && comp.compare(value, high.first()) > 0
+            && high.add(value)) {
+            high.pollFirst();
+         }
+         for (int i = 0; i < ranges; i++) {
+            if (comp.compare(value, spec.lows.get(i)) >= 0
+               && comp.compare(value, spec.highs.get(i)) <= 0) {
+               rangeCounts[i]++;
+            }
+         }
+         for (int i = 0; i < floorKeys; i++) {
+            if (comp.compare(value, spec.floorKeys.get(i)) <= 0
+               && (!hasFloor[i] || comp.compare(value, floors.get(i)) > 0)) {
+               floors.set(i, value);
+               hasFloor[i] = true;
+            }
+         }
+         for (int i = 0; i < ceilingKeys; i++) {
+            if (comp.compare(value, spec.ceilingKeys.get(i)) >= 0
+               && (!hasCeiling[i]
+               || comp.compare(value, ceilings.get(i)) < 0)) {
+               ceilings.set(i, value);
+               hasCeiling[i] = true;
+            }
+         }
+      }
+      min = lo;
+      max = hi;
+      smallest = new ArrayList<T>(low);
+      largest = new ArrayList<T>(high.descendingSet());
+   }
+
+
+   /**
+    * Returns the minimum value, as Selector.min would.
+    *
+    * @return        the minimum value
+    */
+   public T min() {
+      return min;
+   }
+
+
+   /**
+    * Returns the maximum value, as Selector.max would.
+    *
+    * @return        the maximum value
+    */
+   public T max() {
+      return max;
+   }
+
+
+   /**
+    * Returns the kth minimum value, as Selector.kmin would. If k is not
+    * in [1..spec.kmin] or there is no kth minimum value, this method
+    * throws a NoSuchElementException.
+    *
+    * @param k       the k-selection value
+    * @return        the kth minimum value
+    * @throws        NoSuchElementException as per above
+    */
+   public T kmin(int k) {
+      if (k < 1 || k > smallest.size()) {
+         throw new NoSuchElementException();
+      }
+      return smallest.get(k - 1);
+   }
+
+
+   /**
+    * Returns the kth maximum value, as Selector.kmax would. If k is not
+    * in [1..spec.kmax] or there is no kth maximum value, this method
+    * throws a NoSuchElementException.
+    *
+    * @param k       the k-selection value
+    * @return        the kth maximum value
+    * @throws        NoSuchElementException as per above
+    */
+   public T kmax(int k) {
+      if (k < 1 || k > largest.size()) {
+         throw new NoSuchElementException();
+      }
+      return largest.get(k - 1);
+   }
+
+
+   /**
+    * Returns the number of values in the ith range added to the spec,
+    * counting duplicates. This is the size of the Collection that
+    * Selector.range would return, or zero where it would throw.
+    *
+    * @param i       the index of the range, in the order it was added
+    * @return        the number of values in the range
+    * @throws        IndexOutOfBoundsException if there is no ith range
+    */
+   public int rangeCount(int i) {
+      return rangeCounts[i];
+   }
+
+
+   /**
+    * Returns the floor of the ith floor key added to the spec, as
+    * Selector.floor would. If there is no qualifying value, this method
+    * throws a NoSuchElementException.
+    *
+    * @param i       the index of the key, in the order it was added
+    * @return        the floor of the key
+    * @throws        NoSuchElementException as per above
+    */
+   public T floor(int i) {
+      if (!hasFloor[i]) {
+         throw new NoSuchElementException();
+      }
+      return floors.get(i);
+   }
+
+
+   /**
+    * Returns the ceiling of the ith ceiling key added to the spec, as
+    * Selector.ceiling would. If there is no qualifying value, this
+    * method throws a NoSuchElementException.
+    *
+    * @param i       the index of the key, in the order it was added
+    * @return        the ceiling of the key
+    * @throws        NoSuchElementException as per above
+    */
+   public T ceiling(int i) {
+      if (!hasCeiling[i]) {
+         throw new NoSuchElementException();
+      }
+      return ceilings.get(i);
+   }
+
+
+   /**
+    * Names the statistics a Summary should compute. Each method returns
+    * this Spec so calls can be chained; ranges and keys are numbered in
+    * the order they are added.
+    *
+    * @param <T> the type of the summarized values
+    */
+   public static final class Spec<T> {
+      private int smallest;
+      private int largest;
+      private final List<T> lows = new ArrayList<T>();
+      private final List<T> highs = new ArrayList<T>();
+      private final List<T> floorKeys = new ArrayList<T>();
+      private final List<T> ceilingKeys = new ArrayList<T>();
+
+      /**
+       * Requests the k smallest distinct values, so that kmin(1..k)
+       * can be answered. Throws IllegalArgumentException if k < 0.
+       *
+       * @param k    the number of smallest values to keep
+       * @return     this Spec
+       */
+      public Spec<T> kmin(int k) {
+         if (k < 0) {
+            throw new IllegalArgumentException();
+         }
+         smallest = k;
+         return this;
+      }
+
+      /**
+       * Requests the k largest distinct values, so that kmax(1..k)
+       * can be answered. Throws IllegalArgumentException if k < 0.
+       *
+       * @param k    the number of largest values to keep
+       * @return     this Spec
+       */
+      public Spec<T> kmax(int k) {
+         if (k < 0) {
+            throw new IllegalArgumentException();
+         }
+         largest = k;
+         return this;
+      }
+
+      /**
+       * Requests the count of values in [low..high].
+       *
+       * @param low  the lower bound of the range
+       * @param high the upper bound of the range
+       * @return     this Spec
+       */
+      public Spec<T> range(T low, T high) {
+         lows.add(low);
+         highs.add(high);
+         return this;
+      }
+
+      /**
+       * Requests the floor of key.
+       *
+       * @param key  the reference value
+       * @return     this Spec
+       */
+      public Spec<T> floor(T key) {
+         floorKeys.add(key);
+         return this;
+      }
+
+      /**
+       * Requests the ceiling of key.
+       *
+       * @param key  the reference value
+       * @return     this Spec
+       */
+      public Spec<T> ceiling(T key) {
+         ceilingKeys.add(key);
+         return this;
+      }
+   }
+
+}
@@ -0,0 +1,133 @@
+import java.util.Arrays;
+
+/**
+ * DirectionTable.java
+ * Numbers the distinct directions seen from one anchor point. Each
+ * direction is a reduced integer vector packed into a long, and the
+ * table maps it to a small id (0, 1, 2, ...) in the order it is first
+ * seen. Keys live in a primitive open-addressing array, so a lookup
+ * allocates nothing and never compares slopes as doubles.
+ *
+ * @author  Ryan Litwin (rpl0010@auburn.edu)
+ * @version 10-18-2026
+ *
+ */
+final class DirectionTable {
+
+   /** multiplier used to spread packed directions across the table. */
+   private static final long SPREAD = 0x9E3779B97F4A7C15L;
+
+   /** packed directions; 0 marks an empty slot. */
+   private final long[] keys;
+
+   /** ids[i] is the id of keys[i]. */
+   private final int[] ids;
+
+   /** keys.length - 1; the table length is a power of two. */
+   private final int mask;
+
+   /** number of bits to drop from a spread key to index the table. */
+   private final int shift;
+
+   /** number of distinct directions seen since the last clear. */
+   private int size;
+
+   /**
+    * Creates a table that can hold up to capacity directions.
+    * @param capacity as the most directions one anchor can see.
+    */
+   DirectionTable(int capacity) {
+      int length = Integer.highestOneBit(Math.max(2, capacity) * 2 - 1) * 2;
+      keys = new long[length];
+      ids = new int[length];
+      mask = length - 1;
+      shift = Long.numberOfLeadingZeros(mask);
+   }
+
+   /**
+    * Returns the reduced direction from (x0, y0) to (x1, y1), packed into
+    * a long. Opposite directions are folded together so that the result
+    * points from the smaller point to the larger in Point order: its y
+    * part is positive, or zero with a positive x part. The points must
+    * differ, so the result is never 0.
+    * @param x0 as an int.
+    * @param y0 as an int.
+    * @param x1 as an int.
+    * @param y1 as an int.
+    * @return the packed direction.
+    */
+   static long direction(int x0, int y0, int x1, int y1) {
+      int dx = x1 - x0;
+      int dy = y1 - y0;
+      if (dy < 0 || (dy == 0 && dx < 0)) {
+         dx = -dx;
+         dy = -dy;
+      }
+      int g = gcd(Math.abs(dx), dy);
+      dx /= g;
+      dy /= g;
+      return ((long) dx << 32) | (dy & 0xFFFFFFFFL);
+   }
+
+   /**
+    * Returns the greatest common divisor of two non-negative ints that
+    * are not both zero.
+    * @param a as an int.
+    * @param b as an int.
+    * @return the gcd.
+    */
+   private static int gcd(int a, int b) {
+      while (b != 0) {
+         int t = a % b;
+         a = b;
+         b = t;
+      }
+      return a;
+   }
+
+   /**
+    * Returns the id of direction, giving it the next id if it has not
+    * been seen since the last clear.
+    * @param direction as a packed direction, never 0.
+    * @return the id.
+    */
+   int id(long direction) {
+      int i = (int) ((direction * SPREAD) >>> shift);
+      while (keys[i] != 0) {
+         if (keys[i] == direction) {
+            return ids[i];
+         }
+         i = (i + 1) & mask;
+      }
+      keys[i] = direction;
+      ids[i] = size;
+      return size++;
+   }
+
+   /**
+    * Returns the number of distinct directions seen since the last
+    * clear.
+    * @return the size.
+    */
+   int size() {
+      return size;
+   }
+
+   /**
+    * Returns the most directions this table can hold.
+    * @return the capacity.
+    */
+   int capacity() {
+      return keys.length / 2;
+   }
+
+   /**
+    * Forgets every direction so the table can be reused for another
+    * anchor.
+    */
+   void clear() {
+      Arrays.fill(keys, 0L);
+      size = 0;
+   }
+
+}
@@ -1,10 +1,17 @@
-import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.AbstractSet;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.Iterator;
-import java.util.Scanner;
+import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 /**
  * Extractor.java. Implements feature extraction for collinear points in
@@ -19,35 +26,35 @@ public class Extractor {
    
    /** raw data: all (x,y) points from source data. */
    private Point[] points;
+
+   /** the distinct points of the source data in ascending order. */
+   private PointSet distinct;
    
    /** lines identified from raw data. */
    private SortedSet<Line> lines;
+
+   /** the segments found by getLines, or null before its first call. */
+   private LineIndex index;
+
+   /** most anchor points one parallel task scans without splitting. */
+   private static final int PARALLEL_ANCHORS = 16;
   
    /**
-    * Builds an extractor based on the points in the file named by filename. 
+    * Builds an extractor based on the points in the file named by filename,
+    * which may be in the text or the binary format of PointFiles. If the
+    * file cannot be read or is malformed, throw an UncheckedIOException
+    * that says why.
     * @param filename as a string.
     */
    public Extractor(String filename) {
       try {
-         Scanner nScan = new Scanner(new File(filename));
-         int size = nScan.nextInt();
-         points = new Point[size];
-         int x;
-         int y;
-         for (int i = 0; i < size; i++) {
-            x = nScan.nextInt();
-            y = nScan.nextInt();
-            
-            points[i] = new Point(x, y);
-         }
+         distinct = PointFiles.read(filename).distinct();
       }
-      catch (java.io.FileNotFoundException e) {
-         System.err.println("File Not Found");
+      catch (IOException e) {
+         throw new UncheckedIOException(e);
       }
    }
 
-   
-  
    /**
     * Builds an extractor based on the points in the Collection named by pcoll. 
     *
@@ -57,15 +64,29 @@ public class Extractor {
    public Extractor(Collection<Point> pcoll) {
       points = pcoll.toArray(new Point[]{});
    }
+
+   /**
+    * Builds an extractor based on the points in set. Only getLinesBrute
+    * creates a Point for every point, so large inputs should be given this
+    * way rather than as a Collection.
+    * @param set as a point set.
+    */
+   public Extractor(PointSet set) {
+      distinct = set.distinct();
+   }
   
    /**
     * Returns a sorted set of all line segments of exactly four collinear
     * points. Uses a brute-force combinatorial strategy. Returns an empty set
-    * if there are no qualifying line segments.
+    * if there are no qualifying line segments. Each combination is tried
+    * once, and the segments are collected in a list and sorted once.
     * @return lines in the program.
     */
    public SortedSet<Line> getLinesBrute() {
-      lines = new TreeSet<Line>();
+      List<Line> found = new ArrayList<Line>();
+      if (points == null) {
+         points = distinct.toPoints();
+      }
       Line newL = new Line();
       for (int i = 0; i < points.length; i++) {
          for (int j = i + 1; j < points.length; j++) {
@@ -75,13 +96,14 @@ public class Extractor {
                   newL.add(points[j]);
                   if (newL.add(points[a]) && newL.add(points[b]) 
                      && newL.length() == 4) {
-                     lines.add(newL);
+                     found.add(newL);
                   }
                   newL = new Line();
                }
             }
          }
       }
+      lines = sortedSet(found);
       return lines;
    } 
   
@@ -89,31 +111,372 @@ public class Extractor {
     * Returns a sorted set of all line segments of at least four collinear
     * points. The line segments are maximal; that is, no sub-segments are
     * identified separately. A sort-and-scan strategy is used. Returns an empty
-    * set if there are no qualifying line segments.
+    * set if there are no qualifying line segments. Each segment is only
+    * reported from its smallest point, so it is built once, and the
+    * segments are sorted once at the end rather than inserted one by one.
     * @return lines in the program.
     */
    public SortedSet<Line> getLinesFast() {
-      lines = new TreeSet<Line>();
-      Point[] sorted = Arrays.copyOf(points, points.length);
-      Line newL = new Line();
-      boolean isAdded = true;
-      for (int i = 0; i < points.length; i++) {
-         Arrays.sort(sorted, points[i].slopeOrder);
-         
-         for (int j = 0; j < points.length; j++) {
-            newL.add(sorted[0]);
-            isAdded = newL.add(sorted[j]);
-            
-            if (!isAdded) {
-               if (newL.length() >= 4) {
-                  lines.add(newL);
+      List<Line> found = new ArrayList<Line>();
+      PointSet set = distinct();
+      DirectionTable table = new DirectionTable(set.size());
+      long[] keys = new long[set.size()];
+      for (int a = 0; a < set.size(); a++) {
+         scanAnchor(set, a, table, keys, found);
+      }
+      lines = sortedSet(found);
+      return lines;
+   }
+
+   /**
+    * Returns the same sorted set as getLinesFast, with the anchor points
+    * split across the common ForkJoinPool. Each task sorts its own keys and
+    * collects its segments in a private list; the lists are joined and
+    * sorted once, so the result is the same as the serial one.
+    * @return lines in the program.
+    */
+   public SortedSet<Line> getLinesFastParallel() {
+      PointSet set = distinct();
+      List<Line> found = ForkJoinPool.commonPool().invoke(
+         new AnchorTask(set, 0, set.size()));
+      lines = sortedSet(found);
+      return lines;
+   }
+
+   /**
+    * Sorts the other points of set by slope with respect to point a and
+    * adds a line for every run of at least three of them, which with the
+    * anchor makes four collinear points, to out. A run is only added when
+    * a is smaller than all of its points, so every segment is added by
+    * exactly one anchor.
+    *
+    * The slope of each point is first reduced to an exact direction id
+    * from table, and the id and index of each point are packed into one
+    * long in keys, so the sort is a primitive sort with no comparator
+    * calls. Runs come out grouped as in slopeOrder, though not in slope
+    * order.
+    * @param set as distinct points.
+    * @param a as the index of the anchor point.
+    * @param table as a DirectionTable that can hold set.size() ids.
+    * @param keys as scratch space the size of set.
+    * @param out as the collection that receives the lines found.
+    */
+   private static void scanAnchor(PointSet set, int a, DirectionTable table,
+      long[] keys, Collection<Line> out) {
+      int ax = set.x(a);
+      int ay = set.y(a);
+      table.clear();
+      int m = 0;
+      for (int b = 0; b < set.size(); b++) {
+         if (b != a) {
+            long id = table.id(DirectionTable.direction(ax, ay,
+               set.x(b), set.y(b)));
+            keys[m] = (id << 32) | b;
+            m++;
+         }
+      }
+      Arrays.sort(keys, 0, m);
+      int start = 0;
+      for (int j = 1; j <= m; j++) {
+         if (j == m || (keys[j] >>> 32) != (keys[start] >>> 32)) {
+            if (j - start >= 3 && (int) keys[start] > a) {
+               out.add(new Line(set, members(a, keys, start, j)));
+            }
+            start = j;
+         }
+      }
+   }
+
+   /**
+    * Returns the indices of anchor a and of the points in keys[from..to),
+    * in ascending order. The keys share one direction id, so their low
+    * halves, the indices, are already ascending.
+    * @param a as the index of the anchor point.
+    * @param keys as packed (id, index) keys.
+    * @param from as the first key of the run.
+    * @param to as one past the last key of the run.
+    * @return the member indices.
+    */
+   private static int[] members(int a, long[] keys, int from, int to) {
+      int[] members = new int[to - from + 1];
+      int k = 0;
+      boolean placed = false;
+      for (int i = from; i < to; i++) {
+         int b = (int) keys[i];
+         if (!placed && a < b) {
+            members[k] = a;
+            k++;
+            placed = true;
+         }
+         members[k] = b;
+         k++;
+      }
+      if (!placed) {
+         members[k] = a;
+      }
+      return members;
+   }
+
+   /**
+    * Returns the same sorted set of maximal line segments as getLinesFast,
+    * found by hashing instead of sorting. For each anchor point, the
+    * direction to every other point is reduced to lowest terms and numbered
+    * in a DirectionTable, so points on a common line through the anchor
+    * share an id. This takes O(n) expected time per anchor rather than
+    * O(n log n) and compares slopes exactly in integers. A segment is only
+    * reported from its smallest point, so each one is built once.
+    * @return lines in the program.
+    */
+   public SortedSet<Line> getLinesHashed() {
+      lines = sortedSet(segments(distinct(), 4));
+      return lines;
+   }
+
+   /**
+    * Returns a sorted set of all maximal line segments of at least m
+    * collinear points. The segments are found once, for the smallest m
+    * asked for so far, and kept in a LineIndex; a query for the same or a
+    * larger m only filters them. If m is less than 2, throw an
+    * IllegalArgumentException.
+    * @param m as the minimum number of points in a segment.
+    * @return lines in the program.
+    */
+   public SortedSet<Line> getLines(int m) {
+      if (m < 2) {
+         throw new IllegalArgumentException();
+      }
+      if (index == null || m < index.floor()) {
+         index = new LineIndex(distinct(), m);
+      }
+      lines = index.lines(m);
+      return lines;
+   }
+
+   /**
+    * Returns the maximal line segments of at least min points of set, as
+    * getLinesHashed finds them, in no particular order.
+    * @param set as distinct points in ascending Point order.
+    * @param min as the minimum number of points in a segment, at least 2.
+    * @return the segments.
+    */
+   static List<Line> segments(PointSet set, int min) {
+      List<Line> found = new ArrayList<Line>();
+      int n = set.size();
+      DirectionTable table = new DirectionTable(n);
+      int[] idOf = new int[n];
+      int[] count = new int[n];
+      boolean[] seenBelow = new boolean[n];
+      int[] head = new int[n];
+      int[] next = new int[n];
+      for (int a = 0; a < n; a++) {
+         table.clear();
+         int ax = set.x(a);
+         int ay = set.y(a);
+         for (int b = 0; b < n; b++) {
+            if (b != a) {
+               int id = table.id(DirectionTable.direction(ax, ay,
+                  set.x(b), set.y(b)));
+               idOf[b] = id;
+               if (b < a) {
+                  seenBelow[id] = true;
+               }
+               else {
+                  count[id]++;
                }
-               newL = new Line();
-               newL.add(sorted[j]);
             }
          }
+         int ids = table.size();
+         Arrays.fill(head, 0, ids, -1);
+         for (int b = n - 1; b > a; b--) {
+            int id = idOf[b];
+            if (count[id] >= min - 1 && !seenBelow[id]) {
+               next[b] = head[id];
+               head[id] = b;
+            }
+         }
+         for (int id = 0; id < ids; id++) {
+            if (head[id] >= 0) {
+               int size = 1;
+               for (int b = head[id]; b >= 0; b = next[b]) {
+                  size++;
+               }
+               int[] members = new int[size];
+               members[0] = a;
+               int k = 1;
+               for (int b = head[id]; b >= 0; b = next[b]) {
+                  members[k] = b;
+                  k++;
+               }
+               found.add(new Line(set, members));
+            }
+         }
+         Arrays.fill(count, 0, ids, 0);
+         Arrays.fill(seenBelow, 0, ids, false);
+      }
+      return found;
+   }
+
+   /**
+    * Returns the line segments of at least four collinear points whose
+    * consecutive points lie in the same or adjacent square tiles of side
+    * tileSize. Only points in neighboring tiles are compared, and segments
+    * that cross tile borders are stitched together, so huge sparse clouds
+    * can be searched in time proportional to the points around each tile.
+    * With a tileSize larger than every coordinate, this is the same set as
+    * getLinesFast. If tileSize is less than 1, throw an
+    * IllegalArgumentException.
+    * @param tileSize as the side of a tile.
+    * @return lines in the program.
+    */
+   public SortedSet<Line> getLinesTiled(int tileSize) {
+      if (tileSize < 1) {
+         throw new IllegalArgumentException();
       }
+      lines = TiledExtractor.lines(distinct(), tileSize);
       return lines;
    }
-   
+
+   /**
+    * Returns a sorted set of the lines in found. The lines are sorted once
+    * as an array, equal neighbors are dropped, and the set is built from
+    * the sorted array in linear time, with no comparisons beyond the sort.
+    * @param found as the lines to put in the set.
+    * @return the sorted set.
+    */
+   static SortedSet<Line> sortedSet(List<Line> found) {
+      Line[] sorted = found.toArray(new Line[found.size()]);
+      Arrays.sort(sorted);
+      int n = 0;
+      for (int i = 0; i < sorted.length; i++) {
+         if (n == 0 || sorted[i].compareTo(sorted[n - 1]) != 0) {
+            sorted[n] = sorted[i];
+            n++;
+         }
+      }
+      return sortedSet(sorted, n);
+   }
+
+   /**
+    * Returns a sorted set of the first n lines of sorted, built in linear
+    * time. The lines must be in ascending order with no two equal.
+    * @param sorted as lines in ascending order.
+    * @param n as the number of lines to use.
+    * @return the sorted set.
+    */
+   static SortedSet<Line> sortedSet(Line[] sorted, int n) {
+      return new TreeSet<Line>(new SortedLines(sorted, n));
+   }
+
+   /**
+    * Returns the distinct points in ascending Point order as a PointSet,
+    * building it from points on first use.
+    * @return the distinct points.
+    */
+   private PointSet distinct() {
+      if (distinct == null) {
+         distinct = PointSet.of(points).distinct();
+      }
+      return distinct;
+   }
+
+   /**
+    * Finds the lines through a range of anchor points, splitting the
+    * range in half until it is at most PARALLEL_ANCHORS long.
+    */
+   private static final class AnchorTask extends RecursiveTask<List<Line>> {
+      private static final long serialVersionUID = 1L;
+      private final PointSet set;
+      private final int lo;
+      private final int hi;
+
+      AnchorTask(PointSet set, int lo, int hi) {
+         this.set = set;
+         this.lo = lo;
+         this.hi = hi;
+      }
+
+      @Override
+      protected List<Line> compute() {
+         if (hi - lo <= PARALLEL_ANCHORS) {
+            List<Line> found = new ArrayList<Line>();
+            DirectionTable table = new DirectionTable(set.size());
+            long[] keys = new long[set.size()];
+            for (int a = lo; a < hi; a++) {
+               scanAnchor(set, a, table, keys, found);
+            }
+            return found;
+         }
+         int mid = (lo + hi) >>> 1;
+         AnchorTask left = new AnchorTask(set, lo, mid);
+         left.fork();
+         List<Line> right = new AnchorTask(set, mid, hi).compute();
+         List<Line> found = left.join();
+         found.addAll(right);
+         return found;
+      }
+   }
+
+   /**
+    * A read-only view of the first n lines of an array that is sorted and
+    * has no equal lines. Copying it into a TreeSet builds the tree from the
+    * array directly instead of inserting the lines one by one.
+    */
+   private static final class SortedLines extends AbstractSet<Line>
+      implements SortedSet<Line> {
+
+      private final Line[] sorted;
+      private final int n;
+
+      SortedLines(Line[] sorted, int n) {
+         this.sorted = sorted;
+         this.n = n;
+      }
+
+      @Override
+      public int size() {
+         return n;
+      }
+
+      @Override
+      public Iterator<Line> iterator() {
+         return Arrays.asList(sorted).subList(0, n).iterator();
+      }
+
+      @Override
+      public Comparator<? super Line> comparator() {
+         return null;
+      }
+
+      @Override
+      public Line first() {
+         if (n == 0) {
+            throw new NoSuchElementException();
+         }
+         return sorted[0];
+      }
+
+      @Override
+      public Line last() {
+         if (n == 0) {
+            throw new NoSuchElementException();
+         }
+         return sorted[n - 1];
+      }
+
+      @Override
+      public SortedSet<Line> subSet(Line from, Line to) {
+         return new TreeSet<Line>(this).subSet(from, to);
+      }
+
+      @Override
+      public SortedSet<Line> headSet(Line to) {
+         return new TreeSet<Line>(this).headSet(to);
+      }
+
+      @Override
+      public SortedSet<Line> tailSet(Line from) {
+         return new TreeSet<Line>(this).tailSet(from);
+      }
+   }
+
 }
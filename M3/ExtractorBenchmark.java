@@ -0,0 +1,316 @@
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.SortedSet;
+
+/**
+ * ExtractorBenchmark.java
+ * Times the extraction methods of Extractor on synthetic point sets so
+ * that changes to Point, Line and Extractor can be checked for
+ * regressions. Usage:
+ *
+ *    java ExtractorBenchmark generator method size...
+ *
+ * where generator is one of uniform, grid, collinear, line, duplicates or
+ * all; method is one of brute, fast, parallel, hashed, tiled or all; and
+ * each size is a number of points, 100 to 1000000 by default.
+ *
+ * Each method is called until WARMUP_NANOS have passed, and then until
+ * MEASURE_NANOS have passed, at least once each time. For the measured
+ * calls it prints the throughput in calls per second, the mean and 99th
+ * percentile time of a call, and the bytes allocated per call and per
+ * second by the calling thread. The tasks of the parallel methods run on
+ * other threads, so their allocation is undercounted. A method is skipped
+ * at sizes above its limit in LIMITS, since brute is O(n^4) and the exact
+ * methods are O(n^2) or worse.
+ *
+ * @author  Ryan Litwin (rpl0010@auburn.edu)
+ * @version 10-18-2026
+ *
+ */
+public final class ExtractorBenchmark {
+
+   /** the point set generators. */
+   private static final String[] GENERATORS =
+      {"uniform", "grid", "collinear", "line", "duplicates"};
+
+   /** the extraction methods. */
+   private static final String[] METHODS =
+      {"brute", "fast", "parallel", "hashed", "tiled"};
+
+   /** LIMITS[i] is the largest size METHODS[i] is run at. */
+   private static final int[] LIMITS = {100, 10000, 10000, 10000, 1000000};
+
+   /** the sizes run when none are given. */
+   private static final int[] SIZES = {100, 1000, 10000, 100000, 1000000};
+
+   /** points per segment from the collinear generator. */
+   private static final int SEGMENT = 8;
+
+   /** copies of each point from the duplicates generator. */
+   private static final int COPIES = 10;
+
+   /** points per tile the tiled method aims for. */
+   private static final int TILE_POINTS = 16;
+
+   /** time spent calling a method before measuring it. */
+   private static final long WARMUP_NANOS = 1000000000L;
+
+   /** time spent measuring a method. */
+   private static final long MEASURE_NANOS = 3000000000L;
+
+   /** seed of every generator, so runs can be compared. */
+   private static final long SEED = 20261018L;
+
+   /**
+    * Can't instantiate this class.
+    */
+   private ExtractorBenchmark() { }
+
+   /** Drives execution. */
+   public static void main(String[] args) {
+      if (args.length < 2) {
+         System.out.println("Usage: java ExtractorBenchmark generator method"
+            + " size...");
+         return;
+      }
+      String[] generators = select(args[0], GENERATORS);
+      String[] methods = select(args[1], METHODS);
+      if (generators == null || methods == null) {
+         System.out.println("Error: unknown generator or method.");
+         return;
+      }
+      int[] sizes = SIZES;
+      if (args.length > 2) {
+         sizes = new int[args.length - 2];
+         for (int i = 0; i < sizes.length; i++) {
+            try {
+               sizes[i] = Integer.parseInt(args[i + 2]);
+            }
+            catch (NumberFormatException e) {
+               sizes[i] = -1;
+            }
+            if (sizes[i] < 1) {
+               System.out.println("Error: " + args[i + 2]
+                  + " is not a positive size.");
+               return;
+            }
+         }
+      }
+      System.out.printf("%-10s %-8s %8s %8s %7s %10s %10s %10s %12s %10s%n",
+         "generator", "method", "size", "lines", "calls", "calls/s",
+         "mean ms", "p99 ms", "bytes/call", "MB/s");
+      for (String generator : generators) {
+         for (int size : sizes) {
+            PointSet set = generate(generator, size);
+            for (String method : methods) {
+               run(generator, method, size, set);
+            }
+         }
+      }
+   }
+
+   /**
+    * Returns the names matching name: all of names for "all", the one
+    * equal to name, or null if there is none.
+    * @param name as a name or "all".
+    * @param names as the known names.
+    * @return the selected names.
+    */
+   private static String[] select(String name, String[] names) {
+      if (name.equals("all")) {
+         return names;
+      }
+      for (String known : names) {
+         if (known.equals(name)) {
+            return new String[] {name};
+         }
+      }
+      return null;
+   }
+
+   /**
+    * Returns size points from the named generator.
+    *
+    * uniform: points spread evenly over a square four times as wide as
+    * there are points, so few are collinear. grid: the first size points
+    * of a square grid, row by row, so almost every point is on many
+    * segments. collinear: segments of SEGMENT points with random small
+    * directions and random starts. line: every point on one line.
+    * duplicates: size / COPIES uniform points, each repeated COPIES times.
+    * @param generator as a generator name.
+    * @param size as the number of points.
+    * @return the points.
+    */
+   static PointSet generate(String generator, int size) {
+      Random random = new Random(SEED);
+      int[] xs = new int[size];
+      int[] ys = new int[size];
+      if (generator.equals("uniform")) {
+         int width = 4 * size;
+         for (int i = 0; i < size; i++) {
+            xs[i] = random.nextInt(width);
+            ys[i] = random.nextInt(width);
+         }
+      }
+      else if (generator.equals("grid")) {
+         int side = (int) Math.ceil(Math.sqrt(size));
+         for (int i = 0; i < size; i++) {
+            xs[i] = i % side;
+            ys[i] = i / side;
+         }
+      }
+      else if (generator.equals("collinear")) {
+         int width = 4 * size;
+         int dx = 0;
+         int dy = 0;
+         for (int i = 0; i < size; i++) {
+            if (i % SEGMENT == 0) {
+               xs[i] = random.nextInt(width);
+               ys[i] = random.nextInt(width);
+               dx = random.nextInt(7) + 1;
+               dy = random.nextInt(7) + 1;
+            }
+            else {
+               xs[i] = xs[i - 1] + dx;
+               ys[i] = ys[i - 1] + dy;
+            }
+         }
+      }
+      else if (generator.equals("line")) {
+         for (int i = 0; i < size; i++) {
+            xs[i] = 3 * i;
+            ys[i] = 2 * i + 1;
+         }
+      }
+      else if (generator.equals("duplicates")) {
+         int width = 4 * size;
+         int distinct = Math.max(1, size / COPIES);
+         for (int i = 0; i < size; i++) {
+            if (i < distinct) {
+               xs[i] = random.nextInt(width);
+               ys[i] = random.nextInt(width);
+            }
+            else {
+               xs[i] = xs[i % distinct];
+               ys[i] = ys[i % distinct];
+            }
+         }
+      }
+      else {
+         throw new IllegalArgumentException();
+      }
+      return PointSet.wrap(xs, ys);
+   }
+
+   /**
+    * Measures one method on one point set and prints a row of results,
+    * or a note that the method was skipped.
+    * @param generator as the name of the generator of set.
+    * @param method as a method name.
+    * @param size as the number of points generated.
+    * @param set as the points.
+    */
+   private static void run(String generator, String method, int size,
+      PointSet set) {
+      int limit = LIMITS[Arrays.asList(METHODS).indexOf(method)];
+      if (size > limit) {
+         System.out.printf("%-10s %-8s %8d   skipped: above %d points%n",
+            generator, method, size, limit);
+         return;
+      }
+      Extractor extractor = new Extractor(set);
+      int tileSize = tileSize(set);
+      long stop = System.nanoTime() + WARMUP_NANOS;
+      do {
+         call(extractor, method, tileSize);
+      } while (System.nanoTime() < stop);
+      long[] times = new long[16];
+      int calls = 0;
+      int lines = 0;
+      long bytes = allocated();
+      long begin = System.nanoTime();
+      stop = begin + MEASURE_NANOS;
+      long end;
+      do {
+         long start = System.nanoTime();
+         lines = call(extractor, method, tileSize).size();
+         end = System.nanoTime();
+         if (calls == times.length) {
+            times = Arrays.copyOf(times, 2 * calls);
+         }
+         times[calls] = end - start;
+         calls++;
+      } while (end < stop);
+      bytes = allocated() - bytes;
+      long total = end - begin;
+      Arrays.sort(times, 0, calls);
+      long p99 = times[(int) Math.ceil(0.99 * calls) - 1];
+      long sum = 0;
+      for (int i = 0; i < calls; i++) {
+         sum += times[i];
+      }
+      System.out.printf("%-10s %-8s %8d %8d %7d %10.2f %10.3f %10.3f %12d"
+         + " %10.1f%n", generator, method, size, lines, calls,
+         calls * 1e9 / total, sum / 1e6 / calls, p99 / 1e6,
+         bytes / calls, bytes * 1e3 / total);
+   }
+
+   /**
+    * Calls the named method of extractor.
+    * @param extractor as an extractor.
+    * @param method as a method name.
+    * @param tileSize as the tile size for the tiled method.
+    * @return the lines found.
+    */
+   private static SortedSet<Line> call(Extractor extractor, String method,
+      int tileSize) {
+      if (method.equals("brute")) {
+         return extractor.getLinesBrute();
+      }
+      else if (method.equals("fast")) {
+         return extractor.getLinesFast();
+      }
+      else if (method.equals("parallel")) {
+         return extractor.getLinesFastParallel();
+      }
+      else if (method.equals("hashed")) {
+         return extractor.getLinesHashed();
+      }
+      else {
+         return extractor.getLinesTiled(tileSize);
+      }
+   }
+
+   /**
+    * Returns a tile size for set that puts about TILE_POINTS points in a
+    * tile if the points are spread evenly over their bounding square.
+    * @param set as the points.
+    * @return the tile size.
+    */
+   private static int tileSize(PointSet set) {
+      long width = 1;
+      for (int i = 0; i < set.size(); i++) {
+         width = Math.max(width, Math.max(set.x(i), set.y(i)) + 1L);
+      }
+      double tiles = Math.max(1.0, (double) set.size() / TILE_POINTS);
+      return (int) Math.max(1, Math.min(Integer.MAX_VALUE,
+         width / (long) Math.ceil(Math.sqrt(tiles))));
+   }
+
+   /**
+    * Returns the bytes allocated by this thread so far, or 0 if the JVM
+    * does not report them.
+    * @return the bytes allocated.
+    */
+   private static long allocated() {
+      java.lang.management.ThreadMXBean bean =
+         ManagementFactory.getThreadMXBean();
+      if (bean instanceof com.sun.management.ThreadMXBean) {
+         return ((com.sun.management.ThreadMXBean) bean)
+            .getThreadAllocatedBytes(Thread.currentThread().getId());
+      }
+      return 0;
+   }
+
+}
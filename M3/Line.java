@@ -1,5 +1,9 @@
+import java.util.AbstractSet;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
 import java.util.SortedSet;
 import java.util.TreeSet;
 
@@ -7,6 +11,13 @@ import java.util.TreeSet;
  * Line.java
  * Models a line segment as a sorted set of points.
  *
+ * The endpoints, the point count and the reduced direction of the line are
+ * kept in fields, so first, last, length, compareTo and the collinearity
+ * test in add never walk the set. Lines built by Extractor hold their
+ * members as indices into a PointSet and only create Points when they are
+ * iterated; such a line copies itself into a TreeSet the first time a
+ * point is added to it.
+ *
  * @author  Ryan Litwin (rpl0010@auburn.edu)
  * @author  Dean Hendrix (dh@auburn.edu)
  * @version 2-18-2020
@@ -15,6 +26,16 @@ import java.util.TreeSet;
 public class Line implements Comparable<Line>, Iterable<Point> {
  
    SortedSet<Point> line;
+
+   /** the minimum and maximum points, or null if this line is empty. */
+   private Point first;
+   private Point last;
+
+   /** the number of points in this line. */
+   private int count;
+
+   /** the packed direction from first to last; set once count >= 2. */
+   private long direction;
    
    /** 
     * Creates a new line containing no points.
@@ -39,6 +60,42 @@ public class Line implements Comparable<Line>, Iterable<Point> {
 
    }
  
+   /**
+    * Creates a line of the points of set whose indices are in members.
+    * The indices must be in ascending order and name distinct collinear
+    * points of a set sorted in Point order. members is not copied.
+    * @param set as the points the indices refer to.
+    * @param members as a non-empty array of indices.
+    */
+   Line(PointSet set, int[] members) {
+      line = new Members(set, members);
+      count = members.length;
+      first = set.point(members[0]);
+      last = set.point(members[count - 1]);
+      if (count >= 2) {
+         direction = DirectionTable.direction(first.x(), first.y(),
+            last.x(), last.y());
+      }
+   }
+
+   /**
+    * Creates a line with the same points as that. Changing either line
+    * afterwards does not change the other.
+    * @param that as a line.
+    */
+   Line(Line that) {
+      if (that.line instanceof Members) {
+         line = that.line;
+      }
+      else {
+         line = new TreeSet<Point>(that.line);
+      }
+      first = that.first;
+      last = that.last;
+      count = that.count;
+      direction = that.direction;
+   }
+
    /** 
     * Adds the point p to this line if p is collinear with all points already
     * in the line and p itself is not already in the line. Returns true if this
@@ -47,18 +104,61 @@ public class Line implements Comparable<Line>, Iterable<Point> {
     * @return false.
     */
    public boolean add(Point p) {
-      if (line.isEmpty()) {
+      if (count == 0) {
          line.add(p);
+         first = p;
+         last = p;
+         count = 1;
          return true;
       }
-      else if (line.contains(p)) {
+      if (count >= 2 && !onLine(p)) {
          return false;
       }
-      else if (line.first().slopeTo(p) == line.last().slopeTo(p)) {
-         line.add(p);
-         return true;
+      int below = p.compareTo(first);
+      int above = p.compareTo(last);
+      if (below == 0 || above == 0
+         || (below > 0 && above < 0 && line.contains(p))) {
+         return false;
+      }
+      if (line instanceof Members) {
+         line = new TreeSet<Point>(line);
+      }
+      line.add(p);
+      if (below < 0) {
+         first = p;
       }
-      return false;
+      if (above > 0) {
+         last = p;
+      }
+      if (count == 1) {
+         direction = DirectionTable.direction(first.x(), first.y(),
+            last.x(), last.y());
+      }
+      count++;
+      return true;
+   }
+
+   /**
+    * Returns true if p lies on the line through first in direction. The
+    * test is an exact cross product.
+    * @param p as a point.
+    * @return true if p is on this line.
+    */
+   private boolean onLine(Point p) {
+      long dx = (int) (direction >> 32);
+      long dy = (int) direction;
+      long cross = dx * ((long) p.y() - first.y())
+         - dy * ((long) p.x() - first.x());
+      return cross == 0;
+   }
+
+   /**
+    * Returns the reduced direction of this line packed as by
+    * DirectionTable.direction, or 0 if it has fewer than two points.
+    * @return the packed direction.
+    */
+   long direction() {
+      return direction;
    }
    
    /** 
@@ -67,12 +167,7 @@ public class Line implements Comparable<Line>, Iterable<Point> {
     * @return the first point.
     */
    public Point first() {
-      if (line.isEmpty()) {
-         return null;
-      }
-      else {
-         return line.first();
-      }
+      return first;
    }
    
    /** 
@@ -81,12 +176,7 @@ public class Line implements Comparable<Line>, Iterable<Point> {
     * @return the last point.
     */
    public Point last() {
-      if (line.isEmpty()) {
-         return null;
-      }
-      else {
-         return line.last();
-      }
+      return last;
    }
    
    /** 
@@ -94,7 +184,7 @@ public class Line implements Comparable<Line>, Iterable<Point> {
     * @return the line size.
     */
    public int length() {
-      return line.size();
+      return count;
    }
 
    /**
@@ -108,32 +198,21 @@ public class Line implements Comparable<Line>, Iterable<Point> {
     */
    @Override
    public int compareTo(Line that) {
-      if (line.isEmpty()) {
-         if (that.length() == 0) {
+      if (count == 0) {
+         if (that.count == 0) {
             return 0;
          }
          return -1;
       }
       
-      else if (that.length() == 0) {
-         return 1;
-      }
-      else if (line.first().compareTo(that.first()) < 0) {
-         return -1;
-      }
-      else if (line.first().compareTo(that.first()) > 0) {
+      else if (that.count == 0) {
          return 1;
       }
-      else if (line.last().compareTo(that.last()) < 0) {
-         return -1;
-      }
-      else if (line.last().compareTo(that.last()) > 0) {
-         return 1;
+      int c = first.compareTo(that.first);
+      if (c == 0) {
+         c = last.compareTo(that.last);
       }
-      else {
-         return 0;
-      }
-  
+      return Integer.signum(c);
    }
 
    /** 
@@ -142,7 +221,7 @@ public class Line implements Comparable<Line>, Iterable<Point> {
     */
    @Override
    public Iterator<Point> iterator() {
-      Iterator<Point> it = line.iterator();
+      Iterator<Point> it = Collections.unmodifiableSet(line).iterator();
       return it;
    }
    
@@ -195,5 +274,102 @@ public class Line implements Comparable<Line>, Iterable<Point> {
       s = s.delete(s.length() - 4, s.length());
       return s.toString();
    }
- 
+
+   /**
+    * A read-only sorted view of the points of a PointSet named by an
+    * ascending array of indices. Points are created as they are iterated.
+    */
+   private static final class Members extends AbstractSet<Point>
+      implements SortedSet<Point> {
+
+      private final PointSet set;
+      private final int[] members;
+
+      Members(PointSet set, int[] members) {
+         this.set = set;
+         this.members = members;
+      }
+
+      @Override
+      public int size() {
+         return members.length;
+      }
+
+      @Override
+      public Iterator<Point> iterator() {
+         return new Iterator<Point>() {
+            private int i;
+
+            @Override
+            public boolean hasNext() {
+               return i < members.length;
+            }
+
+            @Override
+            public Point next() {
+               if (i == members.length) {
+                  throw new NoSuchElementException();
+               }
+               return set.point(members[i++]);
+            }
+         };
+      }
+
+      @Override
+      public boolean contains(Object o) {
+         if (!(o instanceof Point)) {
+            return false;
+         }
+         Point p = (Point) o;
+         long key = ((long) p.y() << 32) | p.x();
+         int lo = 0;
+         int hi = members.length - 1;
+         while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int m = members[mid];
+            long k = ((long) set.y(m) << 32) | set.x(m);
+            if (k < key) {
+               lo = mid + 1;
+            }
+            else if (k > key) {
+               hi = mid - 1;
+            }
+            else {
+               return true;
+            }
+         }
+         return false;
+      }
+
+      @Override
+      public Comparator<? super Point> comparator() {
+         return null;
+      }
+
+      @Override
+      public Point first() {
+         return set.point(members[0]);
+      }
+
+      @Override
+      public Point last() {
+         return set.point(members[members.length - 1]);
+      }
+
+      @Override
+      public SortedSet<Point> subSet(Point from, Point to) {
+         return new TreeSet<Point>(this).subSet(from, to);
+      }
+
+      @Override
+      public SortedSet<Point> headSet(Point to) {
+         return new TreeSet<Point>(this).headSet(to);
+      }
+
+      @Override
+      public SortedSet<Point> tailSet(Point from) {
+         return new TreeSet<Point>(this).tailSet(from);
+      }
+   }
+
 }
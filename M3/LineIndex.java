@@ -0,0 +1,125 @@
+import java.util.Arrays;
+import java.util.List;
+import java.util.SortedSet;
+
+/**
+ * LineIndex.java
+ * Holds every maximal line segment of at least floor collinear points in
+ * a point set, found once, so that the segments of at least m points can
+ * be asked for with any m of floor or more without searching the points
+ * again. The segments are kept sorted by length, longest first, so the
+ * ones of at least m points are a prefix found by binary search; each is
+ * also given its rank in Line order, so that prefix is put in Line order
+ * by sorting ints rather than comparing lines.
+ *
+ * Every query returns copies of the segments, so a caller that changes
+ * a returned line changes neither the index nor any other query's lines.
+ * The copies share the index's read-only member arrays, so a copy costs
+ * O(1).
+ *
+ * @author  Ryan Litwin (rpl0010@auburn.edu)
+ * @version 10-18-2026
+ *
+ */
+public final class LineIndex {
+
+   /** the fewest points in a segment held by this index. */
+   private final int floor;
+
+   /** the segments, longest first and in Line order among equals. */
+   private final Line[] byLength;
+
+   /** lengths[i] is the number of points in byLength[i]. */
+   private final int[] lengths;
+
+   /** ranks[i] is the position of byLength[i] in inOrder. */
+   private final int[] ranks;
+
+   /** the segments in Line order. */
+   private final Line[] inOrder;
+
+   /**
+    * Finds the maximal segments of at least floor points of set. If set
+    * is already distinct and in ascending Point order, as Extractor passes
+    * it, it is used as it is after one linear check rather than sorted
+    * again. If set is null or floor is less than 2, throw an
+    * IllegalArgumentException.
+    * With a floor of 2, every pair of points is on a segment, so the index
+    * can hold O(n^2) segments.
+    * @param set as a point set, which may hold duplicates.
+    * @param floor as the fewest points in a segment to keep.
+    */
+   public LineIndex(PointSet set, int floor) {
+      if (set == null || floor < 2) {
+         throw new IllegalArgumentException();
+      }
+      this.floor = floor;
+      List<Line> found = Extractor.segments(set.distinct(), floor);
+      int n = found.size();
+      inOrder = found.toArray(new Line[n]);
+      Arrays.sort(inOrder);
+      long[] keys = new long[n];
+      for (int i = 0; i < n; i++) {
+         keys[i] = ((long) -inOrder[i].length() << 32) | i;
+      }
+      Arrays.sort(keys);
+      byLength = new Line[n];
+      lengths = new int[n];
+      ranks = new int[n];
+      for (int i = 0; i < n; i++) {
+         ranks[i] = (int) keys[i];
+         byLength[i] = inOrder[ranks[i]];
+         lengths[i] = byLength[i].length();
+      }
+   }
+
+   /**
+    * Returns the fewest points in a segment held by this index.
+    * @return the floor.
+    */
+   public int floor() {
+      return floor;
+   }
+
+   /**
+    * Returns the number of segments of at least m points. If m is less
+    * than floor, throw an IllegalArgumentException.
+    * @param m as the minimum number of points in a segment.
+    * @return the number of segments.
+    */
+   public int size(int m) {
+      if (m < floor) {
+         throw new IllegalArgumentException();
+      }
+      int lo = 0;
+      int hi = lengths.length;
+      while (lo < hi) {
+         int mid = (lo + hi) >>> 1;
+         if (lengths[mid] >= m) {
+            lo = mid + 1;
+         }
+         else {
+            hi = mid;
+         }
+      }
+      return lo;
+   }
+
+   /**
+    * Returns a sorted set of copies of the segments of at least m points.
+    * If m is less than floor, throw an IllegalArgumentException.
+    * @param m as the minimum number of points in a segment.
+    * @return the segments.
+    */
+   public SortedSet<Line> lines(int m) {
+      int k = size(m);
+      int[] selected = Arrays.copyOf(ranks, k);
+      Arrays.sort(selected);
+      Line[] sorted = new Line[k];
+      for (int i = 0; i < k; i++) {
+         sorted[i] = new Line(inOrder[selected[i]]);
+      }
+      return Extractor.sortedSet(sorted, k);
+   }
+
+}
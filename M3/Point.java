@@ -17,6 +17,11 @@ public final class Point implements Comparable<Point> {
    slope each makes with this point. */
    public final Comparator<Point> slopeOrder = new ComparePointsBySlope();
 
+   /** kinds of slope, in ascending order; see slopeKind. */
+   private static final int DEGENERATE = 0;
+   private static final int FINITE = 1;
+   private static final int VERTICAL = 2;
+
    /** x,y coordinates of this point. */
    private final int x;
    private final int y;
@@ -36,7 +41,37 @@ public final class Point implements Comparable<Point> {
       this.y = y;
    }
 
-   /** 
+   /**
+    * Returns DEGENERATE, FINITE or VERTICAL according to whether the slope
+    * from this point to that is negative infinity, finite, or positive
+    * infinity. The three kinds are in ascending slope order.
+    * @param that as a type of Point.
+    * @return the kind of slope.
+    */
+   private int slopeKind(Point that) {
+      if (this.x == that.x) {
+         return (this.y == that.y) ? DEGENERATE : VERTICAL;
+      }
+      return FINITE;
+   }
+
+   /**
+    * Returns the x coordinate of this point.
+    * @return x.
+    */
+   int x() {
+      return x;
+   }
+
+   /**
+    * Returns the y coordinate of this point.
+    * @return y.
+    */
+   int y() {
+      return y;
+   }
+
+   /**
     * Return a string representation of this point.
     * 
     * THIS METHOD IS PROVIDED FOR YOU AND MUST NOT BE CHANGED.
@@ -140,20 +175,32 @@ public final class Point implements Comparable<Point> {
        * integer, zero, or a positive integer if p1 is less than, equal to, or
        * greater than p2. All three properties of the compare method as
        * specified in the Comparator interface are met. 
+       *
+       * The order is the order of slopeTo, but finite slopes are compared
+       * exactly by cross-multiplying their rises and runs as longs, so no
+       * division is done and slopes too close to tell apart as doubles are
+       * still ordered correctly.
        */
       @Override   
       public int compare(Point p1, Point p2) {
-         double s1 = slopeTo(p1);
-         double s2 = slopeTo(p2);
-         if (s1 < s2) {
-            return -1;
+         int k1 = slopeKind(p1);
+         int k2 = slopeKind(p2);
+         if (k1 != k2 || k1 != FINITE) {
+            return Integer.compare(k1, k2);
          }
-        else if (s1 > s2) {
-            return 1;
+         long run1 = (long) p1.x - x;
+         long rise1 = (long) p1.y - y;
+         long run2 = (long) p2.x - x;
+         long rise2 = (long) p2.y - y;
+         if (run1 < 0) {
+            run1 = -run1;
+            rise1 = -rise1;
          }
-         else {
-            return 0;
+         if (run2 < 0) {
+            run2 = -run2;
+            rise2 = -rise2;
          }
+         return Long.compare(rise1 * run2, rise2 * run1);
       }
       
    }
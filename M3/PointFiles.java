@@ -0,0 +1,363 @@
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * PointFiles.java
+ * Reads and writes files of points straight to and from a PointSet.
+ *
+ * The text format is the one Extractor has always read: a point count n
+ * followed by n pairs of x and y coordinates, all separated by whitespace.
+ * It is parsed a byte at a time from large buffered channel reads instead
+ * of with Scanner. Anything after the nth point is ignored.
+ *
+ * The binary format is the int MAGIC, the count n, and then n pairs of x
+ * and y, every value a big-endian int as written by
+ * DataOutputStream.writeInt; a file is exactly 8 + 8n bytes long.
+ *
+ * Malformed input is reported as an IOException that says what was
+ * expected and at which byte.
+ *
+ * @author  Ryan Litwin (rpl0010@auburn.edu)
+ * @version 10-18-2026
+ *
+ */
+public final class PointFiles {
+
+   /** the first four bytes of a binary point file: "PNTS". */
+   public static final int MAGIC = 0x504E5453;
+
+   /** number of bytes read from the channel at a time. */
+   private static final int BUFFER_BYTES = 1 << 20;
+
+   /**
+    * Can't instantiate this class.
+    */
+   private PointFiles() { }
+
+   /**
+    * Reads the points in the file named by filename, in whichever format
+    * it is in: binary if it begins with MAGIC, text otherwise.
+    * @param filename as a string.
+    * @return the points, in file order.
+    * @throws IOException if the file cannot be read or is malformed.
+    */
+   public static PointSet read(String filename) throws IOException {
+      try (FileChannel ch = open(filename)) {
+         ByteBuffer head = ByteBuffer.allocate(Integer.BYTES);
+         int read = 0;
+         while (head.hasRemaining() && read >= 0) {
+            read = ch.read(head);
+         }
+         ch.position(0);
+         if (!head.hasRemaining() && head.getInt(0) == MAGIC) {
+            return readBinary(ch);
+         }
+         return readText(ch);
+      }
+   }
+
+   /**
+    * Reads the points in the text file named by filename.
+    * @param filename as a string.
+    * @return the points, in file order.
+    * @throws IOException if the file cannot be read or is malformed.
+    */
+   public static PointSet readText(String filename) throws IOException {
+      try (FileChannel ch = open(filename)) {
+         return readText(ch);
+      }
+   }
+
+   /**
+    * Reads the points in the binary file named by filename.
+    * @param filename as a string.
+    * @return the points, in file order.
+    * @throws IOException if the file cannot be read or is malformed.
+    */
+   public static PointSet readBinary(String filename) throws IOException {
+      try (FileChannel ch = open(filename)) {
+         return readBinary(ch);
+      }
+   }
+
+   /**
+    * Writes set to the file named by filename in the binary format,
+    * replacing anything already there.
+    * @param set as a point set.
+    * @param filename as a string.
+    * @throws IOException if the file cannot be written.
+    */
+   public static void writeBinary(PointSet set, String filename)
+      throws IOException {
+      try (FileChannel ch = FileChannel.open(Paths.get(filename),
+            StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING)) {
+         ByteBuffer buf = ByteBuffer.allocate(BUFFER_BYTES);
+         buf.putInt(MAGIC);
+         buf.putInt(set.size());
+         for (int i = 0; i < set.size(); i++) {
+            if (buf.remaining() < 2 * Integer.BYTES) {
+               drain(ch, buf);
+            }
+            buf.putInt(set.x(i));
+            buf.putInt(set.y(i));
+         }
+         drain(ch, buf);
+      }
+   }
+
+   /**
+    * Parses the text format from the start of ch. Each point takes at
+    * least four bytes, two digits and a space before each, so a count
+    * the file is too short to hold is rejected before any array is
+    * allocated for it.
+    * @param ch as an open channel.
+    * @return the points.
+    * @throws IOException if ch cannot be read or is malformed.
+    */
+   private static PointSet readText(FileChannel ch) throws IOException {
+      Tokens in = new Tokens(ch);
+      int n = in.nextInt("the point count", -1);
+      if (n < 0) {
+         throw in.error("a non-negative point count", -1);
+      }
+      long bytes = ch.size();
+      if (n > (bytes - 1) / 4) {
+         throw new IOException("text point file of " + bytes
+            + " bytes cannot hold " + n + " points");
+      }
+      int[] xs = new int[n];
+      int[] ys = new int[n];
+      for (int i = 0; i < n; i++) {
+         xs[i] = in.nextInt("x of point", i);
+         if (xs[i] < 0) {
+            throw in.error("a non-negative x of point", i);
+         }
+         ys[i] = in.nextInt("y of point", i);
+         if (ys[i] < 0) {
+            throw in.error("a non-negative y of point", i);
+         }
+      }
+      return PointSet.wrap(xs, ys);
+   }
+
+   /**
+    * Parses the binary format from the start of ch.
+    * @param ch as an open channel.
+    * @return the points.
+    * @throws IOException if ch cannot be read or is malformed.
+    */
+   private static PointSet readBinary(FileChannel ch) throws IOException {
+      long bytes = ch.size();
+      ByteBuffer buf = ByteBuffer.allocate(BUFFER_BYTES);
+      buf.limit(0);
+      if (bytes < 2 * Integer.BYTES || nextInt(ch, buf) != MAGIC) {
+         throw new IOException("not a binary point file");
+      }
+      int n = nextInt(ch, buf);
+      if (n < 0 || bytes != 2L * Integer.BYTES + 2L * Integer.BYTES * n) {
+         throw new IOException("binary point file of " + bytes
+            + " bytes cannot hold " + n + " points");
+      }
+      int[] xs = new int[n];
+      int[] ys = new int[n];
+      for (int i = 0; i < n; i++) {
+         xs[i] = nextInt(ch, buf);
+         ys[i] = nextInt(ch, buf);
+         if (xs[i] < 0 || ys[i] < 0) {
+            throw new IOException("negative coordinate for point " + i
+               + " at byte " + (2 * Integer.BYTES + 2L * Integer.BYTES * i));
+         }
+      }
+      return PointSet.wrap(xs, ys);
+   }
+
+   /**
+    * Returns the next big-endian int of ch, refilling buf as needed.
+    * @param ch as an open channel.
+    * @param buf as a buffer in read mode.
+    * @return the int.
+    * @throws IOException if ch cannot be read or ends first.
+    */
+   private static int nextInt(FileChannel ch, ByteBuffer buf)
+      throws IOException {
+      while (buf.remaining() < Integer.BYTES) {
+         buf.compact();
+         int read = ch.read(buf);
+         buf.flip();
+         if (read < 0) {
+            throw new EOFException("binary point file ended early");
+         }
+      }
+      return buf.getInt();
+   }
+
+   /**
+    * Writes everything in buf to ch and clears buf.
+    * @param ch as an open channel.
+    * @param buf as a buffer in write mode.
+    * @throws IOException if ch cannot be written.
+    */
+   private static void drain(FileChannel ch, ByteBuffer buf)
+      throws IOException {
+      buf.flip();
+      while (buf.hasRemaining()) {
+         ch.write(buf);
+      }
+      buf.clear();
+   }
+
+   /**
+    * Opens the file named by filename for reading.
+    * @param filename as a string.
+    * @return the open channel.
+    * @throws IOException if the file cannot be opened.
+    */
+   private static FileChannel open(String filename) throws IOException {
+      if (filename == null) {
+         throw new IllegalArgumentException();
+      }
+      return FileChannel.open(Paths.get(filename), StandardOpenOption.READ);
+   }
+
+   /**
+    * Splits a channel into whitespace-separated decimal ints, reading
+    * BUFFER_BYTES at a time and parsing the bytes directly.
+    */
+   private static final class Tokens {
+      private final FileChannel ch;
+      private final ByteBuffer buf = ByteBuffer.allocate(BUFFER_BYTES);
+      private final byte[] bytes = buf.array();
+
+      /** the next byte of bytes to parse, and the number filled. */
+      private int pos;
+      private int end;
+
+      /** the file offset of bytes[0]. */
+      private long base;
+
+      /** the file offset of the start of the last token. */
+      private long start;
+
+      Tokens(FileChannel ch) {
+         this.ch = ch;
+      }
+
+      /**
+       * Parses the next token as an int.
+       * @param what as a description of the value, for errors.
+       * @param i as the index of the point, or -1 if none.
+       * @return the int.
+       * @throws IOException if there is no next token or it is not an
+       *         int.
+       */
+      int nextInt(String what, int i) throws IOException {
+         int c = skipSpace();
+         start = base + pos;
+         if (c < 0) {
+            throw new EOFException(describe(what, i) + " but the file ended");
+         }
+         boolean negative = c == '-';
+         if (negative || c == '+') {
+            pos++;
+            c = peek();
+         }
+         if (c < '0' || c > '9') {
+            throw error(what, i);
+         }
+         long value = 0;
+         while (c >= '0' && c <= '9') {
+            value = value * 10 + (c - '0');
+            if (value > (long) Integer.MAX_VALUE + 1) {
+               throw error(what, i);
+            }
+            pos++;
+            c = peek();
+         }
+         if (c >= 0 && !isSpace(c)) {
+            throw error(what, i);
+         }
+         value = negative ? -value : value;
+         if (value > Integer.MAX_VALUE) {
+            throw error(what, i);
+         }
+         return (int) value;
+      }
+
+      /**
+       * Returns an exception saying what was expected in place of the
+       * last token.
+       * @param what as a description of the expected value.
+       * @param i as the index of the point, or -1 if none.
+       * @return the exception.
+       */
+      IOException error(String what, int i) {
+         return new IOException(describe(what, i));
+      }
+
+      /**
+       * Returns a message saying what was expected at the last token. It
+       * is only built when there is an error to report.
+       * @param what as a description of the expected value.
+       * @param i as the index of the point, or -1 if none.
+       * @return the message.
+       */
+      private String describe(String what, int i) {
+         String point = (i < 0) ? "" : " " + i;
+         return "expected " + what + point + " at byte " + start;
+      }
+
+      /**
+       * Skips whitespace and returns the next byte without consuming it.
+       * @return the byte, or -1 at the end of the file.
+       * @throws IOException if the channel cannot be read.
+       */
+      private int skipSpace() throws IOException {
+         int c = peek();
+         while (c >= 0 && isSpace(c)) {
+            pos++;
+            c = peek();
+         }
+         return c;
+      }
+
+      /**
+       * Returns the next byte, as 0 to 255, without consuming it,
+       * refilling the buffer when it is used up.
+       * @return the byte, or -1 at the end of the file.
+       * @throws IOException if the channel cannot be read.
+       */
+      private int peek() throws IOException {
+         if (pos == end) {
+            base += end;
+            pos = 0;
+            end = 0;
+            buf.clear();
+            int read = ch.read(buf);
+            while (read == 0) {
+               read = ch.read(buf);
+            }
+            if (read < 0) {
+               return -1;
+            }
+            end = read;
+         }
+         return bytes[pos] & 0xFF;
+      }
+
+      /**
+       * Returns true if c is an ASCII whitespace byte.
+       * @param c as a byte.
+       * @return true if c separates tokens.
+       */
+      private static boolean isSpace(int c) {
+         return c == ' ' || c == '\n' || c == '\r' || c == '\t'
+            || c == '\f' || c == 0x0B;
+      }
+   }
+
+}
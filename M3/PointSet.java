@@ -0,0 +1,163 @@
+import java.util.Arrays;
+
+/**
+ * PointSet.java
+ * Stores points as two parallel arrays of coordinates instead of as Point
+ * objects. A point costs eight bytes, not a Point with its own slopeOrder
+ * comparator, and the extraction algorithms in Extractor read the arrays
+ * directly. Points are only created for the lines that are returned. As
+ * with Point, every coordinate must be non-negative.
+ *
+ * @author  Ryan Litwin (rpl0010@auburn.edu)
+ * @version 10-18-2026
+ *
+ */
+public final class PointSet {
+
+   /** xs[i], ys[i] are the coordinates of the ith point. */
+   private final int[] xs;
+   private final int[] ys;
+
+   /**
+    * Creates a set over the given arrays without copying or checking them.
+    * @param xs as the x coordinates.
+    * @param ys as the y coordinates.
+    */
+   private PointSet(int[] xs, int[] ys) {
+      this.xs = xs;
+      this.ys = ys;
+   }
+
+   /**
+    * Returns a set of the points (xs[i], ys[i]). The arrays are copied. If
+    * either array is null, the lengths differ, or any coordinate is
+    * negative, throw an IllegalArgumentException.
+    * @param xs as the x coordinates.
+    * @param ys as the y coordinates.
+    * @return the point set.
+    */
+   public static PointSet of(int[] xs, int[] ys) {
+      if (xs == null || ys == null || xs.length != ys.length) {
+         throw new IllegalArgumentException();
+      }
+      for (int i = 0; i < xs.length; i++) {
+         if (xs[i] < 0 || ys[i] < 0) {
+            throw new IllegalArgumentException();
+         }
+      }
+      return new PointSet(Arrays.copyOf(xs, xs.length),
+         Arrays.copyOf(ys, ys.length));
+   }
+
+   /**
+    * Returns a set over xs and ys without copying them. The caller must
+    * have checked them as of(int[], int[]) does and must not change them.
+    * @param xs as the x coordinates.
+    * @param ys as the y coordinates.
+    * @return the point set.
+    */
+   static PointSet wrap(int[] xs, int[] ys) {
+      return new PointSet(xs, ys);
+   }
+
+   /**
+    * Returns a set of the given points, in the same order.
+    * @param points as an array of points.
+    * @return the point set.
+    */
+   static PointSet of(Point[] points) {
+      int[] xs = new int[points.length];
+      int[] ys = new int[points.length];
+      for (int i = 0; i < points.length; i++) {
+         xs[i] = points[i].x();
+         ys[i] = points[i].y();
+      }
+      return new PointSet(xs, ys);
+   }
+
+   /**
+    * Returns the number of points in this set.
+    * @return the size.
+    */
+   public int size() {
+      return xs.length;
+   }
+
+   /**
+    * Returns the x coordinate of the ith point.
+    * @param i as an index.
+    * @return x.
+    */
+   public int x(int i) {
+      return xs[i];
+   }
+
+   /**
+    * Returns the y coordinate of the ith point.
+    * @param i as an index.
+    * @return y.
+    */
+   public int y(int i) {
+      return ys[i];
+   }
+
+   /**
+    * Returns the ith point as a Point.
+    * @param i as an index.
+    * @return the point.
+    */
+   public Point point(int i) {
+      return new Point(xs[i], ys[i]);
+   }
+
+   /**
+    * Returns every point in this set as a Point, in order.
+    * @return the points.
+    */
+   Point[] toPoints() {
+      Point[] points = new Point[xs.length];
+      for (int i = 0; i < points.length; i++) {
+         points[i] = point(i);
+      }
+      return points;
+   }
+
+   /**
+    * Returns a set of the distinct points in this set, in ascending Point
+    * order. Since coordinates are non-negative, packing y above x in a
+    * long gives a key whose numeric order is Point order, so one primitive
+    * sort does the work. If this set is already strictly ascending, it is
+    * returned itself after one linear check, so deduplicating a set twice
+    * costs no second sort.
+    * @return the sorted distinct points.
+    */
+   PointSet distinct() {
+      long[] keys = new long[xs.length];
+      boolean ascending = true;
+      for (int i = 0; i < keys.length; i++) {
+         keys[i] = ((long) ys[i] << 32) | xs[i];
+         if (i > 0 && keys[i] <= keys[i - 1]) {
+            ascending = false;
+         }
+      }
+      if (ascending) {
+         return this;
+      }
+      Arrays.sort(keys);
+      int n = 0;
+      for (int i = 0; i < keys.length; i++) {
+         if (n == 0 || keys[i] != keys[n - 1]) {
+            keys[n] = keys[i];
+            n++;
+         }
+      }
+      int[] dxs = new int[n];
+      int[] dys = new int[n];
+      for (int i = 0; i < n; i++) {
+         dxs[i] = (int) keys[i];
+         dys[i] = (int) (keys[i] >>> 32);
+      }
+      return new PointSet(dxs, dys);
+   }
+
+}
@@ -0,0 +1,214 @@
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * StreamingExtractor.java
+ * Finds the maximal line segments of at least four collinear points in a
+ * feed of points, one point at a time. When a point arrives, only the
+ * directions from it to the points already seen are examined: they are
+ * numbered in a DirectionTable, and a direction shared by three earlier
+ * points makes a new segment, while one shared by four or more extends a
+ * segment already found. Each insert takes O(n) expected time, and after
+ * any sequence of inserts lines() is what Extractor.getLinesFast would
+ * return for the same points.
+ *
+ * Every new or extended segment is reported to a Listener. The Line
+ * passed to the listener, like every Line returned by lines(), is a copy
+ * of the segment as it is at that moment; later points extend the
+ * segment inside this extractor, never a Line the caller holds, so the
+ * caller's lines keep their order in any sorted set. This class is not
+ * thread-safe; a feed shared by several threads must be synchronized by
+ * the caller.
+ *
+ * @author  Ryan Litwin (rpl0010@auburn.edu)
+ * @version 10-18-2026
+ *
+ */
+public final class StreamingExtractor {
+
+   /**
+    * Receives the changes to the segments of a StreamingExtractor.
+    */
+   public interface Listener {
+
+      /**
+       * Called when the point just added completes a new segment of four
+       * collinear points.
+       * @param line as a copy of the new segment.
+       */
+      void lineFound(Line line);
+
+      /**
+       * Called when p is added to a segment that was already reported.
+       * @param line as a copy of the extended segment, which now
+       *        contains p.
+       * @param p as the point added.
+       */
+      void lineExtended(Line line, Point p);
+   }
+
+   /** the receiver of every change. */
+   private final Listener listener;
+
+   /** xs[i], ys[i] are the coordinates of the ith point added. */
+   private int[] xs = new int[16];
+   private int[] ys = new int[16];
+
+   /** the number of points added. */
+   private int size;
+
+   /** the segments found so far, keyed by the line they lie on. */
+   private final Map<LineKey, Line> lines = new HashMap<LineKey, Line>();
+
+   /** scratch space for add, sized to the capacity of xs. */
+   private DirectionTable table = new DirectionTable(16);
+   private int[] idOf = new int[16];
+   private int[] count = new int[16];
+   private int[] head = new int[16];
+   private int[] next = new int[16];
+
+   /**
+    * Creates an extractor with no points that reports to listener. If
+    * listener is null, throw an IllegalArgumentException.
+    * @param listener as the receiver of changes.
+    */
+   public StreamingExtractor(Listener listener) {
+      if (listener == null) {
+         throw new IllegalArgumentException();
+      }
+      this.listener = listener;
+   }
+
+   /**
+    * Adds p to the points seen, updates the segments through it and
+    * reports each new or extended segment to the listener. Returns false,
+    * and changes nothing, if p has already been added. If p is null,
+    * throw an IllegalArgumentException.
+    * @param p as a point.
+    * @return true if p was added.
+    */
+   public boolean add(Point p) {
+      if (p == null) {
+         throw new IllegalArgumentException();
+      }
+      int px = p.x();
+      int py = p.y();
+      int n = size;
+      if (n == xs.length) {
+         grow();
+      }
+      table.clear();
+      for (int b = 0; b < n; b++) {
+         if (xs[b] == px && ys[b] == py) {
+            Arrays.fill(count, 0, table.size(), 0);
+            return false;
+         }
+         int id = table.id(DirectionTable.direction(px, py, xs[b], ys[b]));
+         idOf[b] = id;
+         count[id]++;
+      }
+      int ids = table.size();
+      Arrays.fill(head, 0, ids, -1);
+      for (int b = n - 1; b >= 0; b--) {
+         int id = idOf[b];
+         if (count[id] >= 3) {
+            next[b] = head[id];
+            head[id] = b;
+         }
+      }
+      xs[n] = px;
+      ys[n] = py;
+      size++;
+      for (int id = 0; id < ids; id++) {
+         if (head[id] >= 0) {
+            LineKey key = new LineKey(px, py, xs[head[id]], ys[head[id]]);
+            if (count[id] == 3) {
+               Line line = new Line();
+               line.add(p);
+               for (int b = head[id]; b >= 0; b = next[b]) {
+                  line.add(new Point(xs[b], ys[b]));
+               }
+               lines.put(key, line);
+               listener.lineFound(new Line(line));
+            }
+            else {
+               Line line = lines.get(key);
+               line.add(p);
+               listener.lineExtended(new Line(line), p);
+            }
+         }
+      }
+      Arrays.fill(count, 0, ids, 0);
+      return true;
+   }
+
+   /**
+    * Returns the number of distinct points added.
+    * @return the size.
+    */
+   public int size() {
+      return size;
+   }
+
+   /**
+    * Returns a sorted set of copies of the segments found so far. Later
+    * points do not change the set or its lines.
+    * @return lines in the feed.
+    */
+   public SortedSet<Line> lines() {
+      SortedSet<Line> copies = new TreeSet<Line>();
+      for (Line line : lines.values()) {
+         copies.add(new Line(line));
+      }
+      return copies;
+   }
+
+   /**
+    * Doubles the capacity of the point arrays and the scratch space.
+    */
+   private void grow() {
+      int capacity = 2 * xs.length;
+      xs = Arrays.copyOf(xs, capacity);
+      ys = Arrays.copyOf(ys, capacity);
+      table = new DirectionTable(capacity);
+      idOf = new int[capacity];
+      count = new int[capacity];
+      head = new int[capacity];
+      next = new int[capacity];
+   }
+
+   /**
+    * Identifies the infinite line through two distinct points by its
+    * reduced direction (dx, dy) and its offset dy * x - dx * y, which is
+    * the same for every point on it.
+    */
+   private static final class LineKey {
+      private final long direction;
+      private final long offset;
+
+      LineKey(int x0, int y0, int x1, int y1) {
+         direction = DirectionTable.direction(x0, y0, x1, y1);
+         long dx = (int) (direction >> 32);
+         long dy = (int) direction;
+         offset = dy * x0 - dx * y0;
+      }
+
+      @Override
+      public boolean equals(Object obj) {
+         if (!(obj instanceof LineKey)) {
+            return false;
+         }
+         LineKey that = (LineKey) obj;
+         return direction == that.direction && offset == that.offset;
+      }
+
+      @Override
+      public int hashCode() {
+         return Long.hashCode(direction * 31 + offset);
+      }
+   }
+
+}
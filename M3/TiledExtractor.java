@@ -0,0 +1,310 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * TiledExtractor.java
+ * Finds line segments in point clouds too large for a scan over all pairs
+ * of points. The points are bucketed into square tiles of a fixed size,
+ * and each point is only compared with the points in its own tile and
+ * the eight tiles around it. For every direction, a point with a
+ * collinear neighbor on each side within those tiles is linked to the
+ * nearest one on each side. Links of consecutive points are then stitched
+ * into chains across tile borders, and every chain is a segment.
+ *
+ * A segment is therefore found when each pair of consecutive points on
+ * it lies in the same or adjacent tiles; a wider gap splits it. When one
+ * tile covers every point, the result is exactly that of
+ * Extractor.getLinesFast. Tiles are scanned in parallel on the common
+ * ForkJoinPool. The working space of a scan is bounded by the number of
+ * points around one tile, and only points on runs of three or more are
+ * kept for stitching.
+ *
+ * @author  Ryan Litwin (rpl0010@auburn.edu)
+ * @version 10-18-2026
+ *
+ */
+final class TiledExtractor {
+
+   /** most tiles one parallel task scans without splitting. */
+   private static final int PARALLEL_TILES = 64;
+
+   /** the distinct points, in ascending Point order. */
+   private final PointSet set;
+
+   /** the side of a tile. */
+   private final int tileSize;
+
+   /** the packed (row, column) keys of the non-empty tiles, ascending. */
+   private final long[] tiles;
+
+   /** the points of tile t are order[start[t]..start[t + 1]). */
+   private final int[] start;
+   private final int[] order;
+
+   /**
+    * Buckets the points of set into tiles of side tileSize.
+    * @param set as distinct points in ascending Point order.
+    * @param tileSize as a positive int.
+    */
+   private TiledExtractor(PointSet set, int tileSize) {
+      this.set = set;
+      this.tileSize = tileSize;
+      int n = set.size();
+      long[] keys = new long[n];
+      for (int i = 0; i < n; i++) {
+         keys[i] = tileOf(set.x(i), set.y(i));
+      }
+      long[] sorted = Arrays.copyOf(keys, n);
+      Arrays.sort(sorted);
+      int count = 0;
+      for (int i = 0; i < n; i++) {
+         if (count == 0 || sorted[i] != sorted[count - 1]) {
+            sorted[count] = sorted[i];
+            count++;
+         }
+      }
+      tiles = Arrays.copyOf(sorted, count);
+      long[] byTile = new long[n];
+      for (int i = 0; i < n; i++) {
+         byTile[i] = ((long) Arrays.binarySearch(tiles, keys[i]) << 32) | i;
+      }
+      Arrays.sort(byTile);
+      order = new int[n];
+      start = new int[count + 1];
+      for (int i = 0; i < n; i++) {
+         order[i] = (int) byTile[i];
+         start[(int) (byTile[i] >>> 32) + 1]++;
+      }
+      for (int t = 0; t < count; t++) {
+         start[t + 1] += start[t];
+      }
+   }
+
+   /**
+    * Returns the segments of at least four points of set whose
+    * consecutive points lie in the same or adjacent tiles of side
+    * tileSize.
+    * @param set as distinct points in ascending Point order.
+    * @param tileSize as a positive int.
+    * @return the segments found.
+    */
+   static SortedSet<Line> lines(PointSet set, int tileSize) {
+      TiledExtractor tiled = new TiledExtractor(set, tileSize);
+      Links links = ForkJoinPool.commonPool().invoke(
+         tiled.new TileTask(0, tiled.tiles.length));
+      return tiled.stitch(links);
+   }
+
+   /**
+    * Returns the key of the tile holding (x, y): its row above its
+    * column, so keys sort row by row.
+    * @param x as an int.
+    * @param y as an int.
+    * @return the packed tile key.
+    */
+   private long tileOf(int x, int y) {
+      return ((long) (y / tileSize) << 32) | (x / tileSize);
+   }
+
+   /**
+    * Finds, for every point a of tile t and every direction, the nearest
+    * points before and after a in that direction among the points of t
+    * and the tiles around it. Where there are both, a is an interior
+    * point of a run of three or more, and a link is added to out. Points
+    * with no collinear neighbors on both sides add nothing, so a sparse
+    * cloud yields few links.
+    * @param t as the index of a tile.
+    * @param table as scratch space, replaced if it is too small.
+    * @param out as the links found so far.
+    * @return the table, possibly replaced.
+    */
+   private DirectionTable scanTile(int t, DirectionTable table, Links out) {
+      int row = (int) (tiles[t] >>> 32);
+      int col = (int) tiles[t];
+      int[] around = new int[9];
+      int neighbors = 0;
+      int population = 0;
+      for (int r = row - 1; r <= row + 1; r++) {
+         for (int c = col - 1; c <= col + 1; c++) {
+            if (r >= 0 && c >= 0) {
+               int u = Arrays.binarySearch(tiles, ((long) r << 32) | c);
+               if (u >= 0) {
+                  around[neighbors] = u;
+                  neighbors++;
+                  population += start[u + 1] - start[u];
+               }
+            }
+         }
+      }
+      if (table == null || table.capacity() < population) {
+         table = new DirectionTable(population);
+      }
+      long[] dirs = new long[population];
+      int[] before = new int[population];
+      int[] after = new int[population];
+      for (int i = start[t]; i < start[t + 1]; i++) {
+         int a = order[i];
+         int ax = set.x(a);
+         int ay = set.y(a);
+         table.clear();
+         for (int k = 0; k < neighbors; k++) {
+            int u = around[k];
+            for (int j = start[u]; j < start[u + 1]; j++) {
+               int b = order[j];
+               if (b != a) {
+                  long d = DirectionTable.direction(ax, ay,
+                     set.x(b), set.y(b));
+                  int seen = table.size();
+                  int id = table.id(d);
+                  if (id == seen) {
+                     dirs[id] = d;
+                     before[id] = -1;
+                     after[id] = Integer.MAX_VALUE;
+                  }
+                  if (b < a) {
+                     before[id] = Math.max(before[id], b);
+                  }
+                  else {
+                     after[id] = Math.min(after[id], b);
+                  }
+               }
+            }
+         }
+         for (int id = 0; id < table.size(); id++) {
+            if (before[id] >= 0 && after[id] != Integer.MAX_VALUE) {
+               out.add(dirs[id], before[id], a, after[id]);
+            }
+         }
+      }
+      return table;
+   }
+
+   /**
+    * Joins the links of consecutive interior points of the same direction
+    * into chains and returns a line for every chain. A chain starts at a
+    * link whose point before is not itself an interior point, and every
+    * chain has at least two interior points, so at least four points.
+    * @param links as every link found.
+    * @return the segments.
+    */
+   private SortedSet<Line> stitch(Links links) {
+      int m = links.size;
+      long[] dirs = Arrays.copyOf(links.dirs, m);
+      Arrays.sort(dirs);
+      int distinct = 0;
+      for (int i = 0; i < m; i++) {
+         if (distinct == 0 || dirs[i] != dirs[distinct - 1]) {
+            dirs[distinct] = dirs[i];
+            distinct++;
+         }
+      }
+      long[] keys = new long[m];
+      for (int i = 0; i < m; i++) {
+         long rank = Arrays.binarySearch(dirs, 0, distinct, links.dirs[i]);
+         keys[i] = (rank << 32) | links.at[i];
+      }
+      long[] sorted = Arrays.copyOf(keys, m);
+      Arrays.sort(sorted);
+      int[] before = new int[m];
+      int[] after = new int[m];
+      for (int i = 0; i < m; i++) {
+         int p = Arrays.binarySearch(sorted, keys[i]);
+         before[p] = links.before[i];
+         after[p] = links.after[i];
+      }
+      List<Line> lines = new ArrayList<Line>();
+      int[] members = new int[16];
+      for (int p = 0; p < m; p++) {
+         long rank = sorted[p] & 0xFFFFFFFF00000000L;
+         if (Arrays.binarySearch(sorted, rank | before[p]) < 0) {
+            members[0] = before[p];
+            members[1] = (int) sorted[p];
+            int length = 2;
+            int q = p;
+            while (q >= 0) {
+               if (length == members.length) {
+                  members = Arrays.copyOf(members, 2 * length);
+               }
+               members[length] = after[q];
+               length++;
+               q = Arrays.binarySearch(sorted, rank | after[q]);
+            }
+            if (length >= 4) {
+               lines.add(new Line(set, Arrays.copyOf(members, length)));
+            }
+         }
+      }
+      return Extractor.sortedSet(lines);
+   }
+
+   /**
+    * A growable list of links, each naming an interior point and its
+    * nearest neighbors before and after it in one direction.
+    */
+   private static final class Links {
+      private long[] dirs = new long[16];
+      private int[] before = new int[16];
+      private int[] at = new int[16];
+      private int[] after = new int[16];
+      private int size;
+
+      void add(long dir, int b, int a, int c) {
+         if (size == dirs.length) {
+            dirs = Arrays.copyOf(dirs, 2 * size);
+            before = Arrays.copyOf(before, 2 * size);
+            at = Arrays.copyOf(at, 2 * size);
+            after = Arrays.copyOf(after, 2 * size);
+         }
+         dirs[size] = dir;
+         before[size] = b;
+         at[size] = a;
+         after[size] = c;
+         size++;
+      }
+
+      void addAll(Links that) {
+         for (int i = 0; i < that.size; i++) {
+            add(that.dirs[i], that.before[i], that.at[i], that.after[i]);
+         }
+      }
+   }
+
+   /**
+    * Scans a range of tiles, splitting it in half until it is at most
+    * PARALLEL_TILES long.
+    */
+   private final class TileTask extends RecursiveTask<Links> {
+      private static final long serialVersionUID = 1L;
+      private final int lo;
+      private final int hi;
+
+      TileTask(int lo, int hi) {
+         this.lo = lo;
+         this.hi = hi;
+      }
+
+      @Override
+      protected Links compute() {
+         if (hi - lo <= PARALLEL_TILES) {
+            Links found = new Links();
+            DirectionTable table = null;
+            for (int t = lo; t < hi; t++) {
+               table = scanTile(t, table, found);
+            }
+            return found;
+         }
+         int mid = (lo + hi) >>> 1;
+         TileTask left = new TileTask(lo, mid);
+         left.fork();
+         Links right = new TileTask(mid, hi).compute();
+         Links found = left.join();
+         found.addAll(right);
+         return found;
+      }
+   }
+
+}